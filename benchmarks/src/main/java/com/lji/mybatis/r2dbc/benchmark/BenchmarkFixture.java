@@ -0,0 +1,129 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.base.impl.DefaultReactiveSqlSession;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubColumnMetadata;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubRow;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubRowMetadata;
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 基准测试用的配置和内存数据：列 c0..c(n-1)，偶数列 Long，奇数列 String
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class BenchmarkFixture {
+
+    public static final String AUTO_RESULT_MAP = "bench.auto";
+
+    public static final String EXPLICIT_RESULT_MAP = "bench.explicit";
+
+    public static final String MAP_RESULT_MAP = "bench.map";
+
+    public static final String SCALAR_RESULT_MAP = "bench.scalar";
+
+    public static final String INSERT_STATEMENT = "bench.insert";
+
+    public static final String SELECT_STATEMENT = "bench.select";
+
+    private final R2dbcConfiguration configuration = new R2dbcConfiguration();
+
+    private final DefaultReactiveSqlSession session;
+
+    private final StubRowMetadata rowMetadata;
+
+    private final StubRow[] rows;
+
+    private final WideRow parameter = new WideRow();
+
+    public BenchmarkFixture(int columns, int rowCount) {
+        List<StubColumnMetadata> columnMetadata = new ArrayList<>();
+        List<ResultMapping> explicitMappings = new ArrayList<>();
+        StringJoiner insertColumns = new StringJoiner(", ", "insert into wide (", ")");
+        StringJoiner insertValues = new StringJoiner(", ", " values (", ")");
+        for (int i = 0; i < columns; i++) {
+            Class<?> javaType = javaType(i);
+            columnMetadata.add(new StubColumnMetadata("c" + i, javaType));
+            explicitMappings.add(new ResultMapping.Builder(configuration, "c" + i, "c" + i, javaType).build());
+            insertColumns.add("c" + i);
+            insertValues.add("#{c" + i + "}");
+            configuration.newMetaObject(parameter).setValue("c" + i, value(i, 42));
+        }
+        this.rowMetadata = new StubRowMetadata(columnMetadata);
+        this.rows = new StubRow[rowCount];
+        for (int r = 0; r < rowCount; r++) {
+            Object[] values = new Object[columns];
+            for (int i = 0; i < columns; i++) {
+                values[i] = value(i, r);
+            }
+            rows[r] = new StubRow(rowMetadata, values);
+        }
+
+        configuration.addResultMap(new ResultMap.Builder(configuration, AUTO_RESULT_MAP, WideRow.class, Collections.emptyList()).build());
+        configuration.addResultMap(new ResultMap.Builder(configuration, EXPLICIT_RESULT_MAP, WideRow.class, explicitMappings).build());
+        configuration.addResultMap(new ResultMap.Builder(configuration, MAP_RESULT_MAP, Map.class, Collections.emptyList()).build());
+        configuration.addResultMap(new ResultMap.Builder(configuration, SCALAR_RESULT_MAP, Long.class, Collections.emptyList()).build());
+        configuration.addMappedStatement(new MappedStatement.Builder(configuration, INSERT_STATEMENT,
+                new RawSqlSource(configuration, insertColumns + insertValues.toString(), WideRow.class), SqlCommandType.INSERT).build());
+        configuration.addMappedStatement(new MappedStatement.Builder(configuration, SELECT_STATEMENT,
+                new RawSqlSource(configuration, "select * from wide", Object.class), SqlCommandType.SELECT)
+                .resultMaps(Collections.singletonList(configuration.getResultMap(EXPLICIT_RESULT_MAP))).build());
+        try {
+            configuration.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        this.session = new DefaultReactiveSqlSession(configuration, null);
+    }
+
+    public R2dbcConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public DefaultReactiveSqlSession getSession() {
+        return session;
+    }
+
+    /**
+     * 在给定连接上执行语句的会话，配置与 {@link #getSession()} 相同
+     */
+    public DefaultReactiveSqlSession newSession(ConnectionFactory connectionFactory) {
+        return new DefaultReactiveSqlSession(configuration, connectionFactory);
+    }
+
+    public StubRowMetadata getRowMetadata() {
+        return rowMetadata;
+    }
+
+    public StubRow[] getRows() {
+        return rows;
+    }
+
+    public WideRow getParameter() {
+        return parameter;
+    }
+
+    public ResultMap getResultMap(String id) {
+        return configuration.getResultMap(id);
+    }
+
+    private static Class<?> javaType(int column) {
+        return column % 2 == 0 ? Long.class : String.class;
+    }
+
+    private static Object value(int column, int row) {
+        return column % 2 == 0 ? (Object) ((long) row * column) : "value-" + row + "-" + column;
+    }
+}
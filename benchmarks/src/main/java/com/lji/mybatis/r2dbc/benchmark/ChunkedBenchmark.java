@@ -0,0 +1,82 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.base.columnar.ColumnBatch;
+import com.lji.mybatis.r2dbc.base.impl.DefaultReactiveSqlSession;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnection;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnectionFactory;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 汇总 c0 列的报表查询，一次操作 = 一行：逐个对象、按 chunkSize 分批的对象列表、按列的 long[] 三种读法
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkedBenchmark {
+
+    private static final int ROWS = 65536;
+
+    @Param({"1024"})
+    public int chunkSize;
+
+    private DefaultReactiveSqlSession session;
+
+    @Setup
+    public void setup() {
+        BenchmarkFixture fixture = new BenchmarkFixture(4, 1024);
+        StubConnection connection = new StubConnection(sql -> new StubResult(fixture.getRowMetadata(), fixture.getRows(), ROWS));
+        session = fixture.newSession(new StubConnectionFactory(connection));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long perRow() {
+        return session.<WideRow>select(BenchmarkFixture.SELECT_STATEMENT)
+                .reduce(0L, (sum, row) -> sum + row.getC0()).block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long chunked() {
+        return session.<WideRow>selectChunked(BenchmarkFixture.SELECT_STATEMENT, null, chunkSize)
+                .reduce(0L, (sum, chunk) -> {
+                    for (WideRow row : chunk) {
+                        sum += row.getC0();
+                    }
+                    return sum;
+                }).block();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long columnar() {
+        return session.selectColumns(BenchmarkFixture.SELECT_STATEMENT, null, chunkSize)
+                .reduce(0L, (sum, batch) -> {
+                    for (long value : batch.getLongs(0)) {
+                        sum += value;
+                    }
+                    return sum;
+                }).block();
+    }
+}
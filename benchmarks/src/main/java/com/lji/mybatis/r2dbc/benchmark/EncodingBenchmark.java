@@ -0,0 +1,74 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.base.encoding.RowFormat;
+import com.lji.mybatis.r2dbc.base.impl.DefaultReactiveSqlSession;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnectionFactory;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnection;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过会话读完整个结果，一次操作 = 一行：按 ResultMap 映射成对象，对比直接编码成 NDJSON 的 DataBuffer，
+ * gc.alloc.rate.norm 为每行的分配字节数
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+    private static final int ROWS = 65536;
+
+    @Param({"4", "16"})
+    public int columns;
+
+    private DefaultReactiveSqlSession session;
+
+    private final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+    @Setup
+    public void setup() {
+        BenchmarkFixture fixture = new BenchmarkFixture(columns, 1024);
+        StubConnection connection = new StubConnection(sql -> new StubResult(fixture.getRowMetadata(), fixture.getRows(), ROWS));
+        session = fixture.newSession(new StubConnectionFactory(connection));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void selectObjects(Blackhole blackhole) {
+        session.select(BenchmarkFixture.SELECT_STATEMENT).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void selectEncoded(Blackhole blackhole) {
+        session.selectEncoded(BenchmarkFixture.SELECT_STATEMENT, null, RowFormat.NDJSON, bufferFactory)
+                .doOnNext(buffer -> {
+                    blackhole.consume(buffer.readableByteCount());
+                    DataBufferUtils.release(buffer);
+                })
+                .blockLast();
+    }
+}
@@ -0,0 +1,66 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.benchmark.stub.StubStatement;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参数绑定热路径，一次操作 = 一条语句的执行计划查找（或 BoundSql 生成）和全部参数绑定
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int columns;
+
+    private BenchmarkFixture fixture;
+
+    private MappedStatement mappedStatement;
+
+    private StubStatement statement;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture(columns, 1);
+        mappedStatement = fixture.getConfiguration().getMappedStatement(BenchmarkFixture.INSERT_STATEMENT);
+        statement = new StubStatement();
+    }
+
+    @Benchmark
+    public Object bindPojo() {
+        fixture.getConfiguration().getStatementPlanCache().prepare(mappedStatement, fixture.getParameter()).bind(statement);
+        return statement.getCurrentBindings();
+    }
+
+    /**
+     * 不走执行计划缓存，每次生成 BoundSql，作为对照
+     */
+    @Benchmark
+    public Object bindPojoBoundSql() {
+        Object parameter = fixture.getParameter();
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        fixture.getSession().fillParams(statement, boundSql, parameter);
+        return statement.getCurrentBindings();
+    }
+}
@@ -0,0 +1,100 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.benchmark.stub.StubRow;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubRowMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 行映射热路径，一次操作 = 一行
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"4", "16", "64"})
+    public int columns;
+
+    private BenchmarkFixture fixture;
+
+    private StubRowMetadata rowMetadata;
+
+    private StubRow[] rows;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture(columns, ROWS);
+        rowMetadata = fixture.getRowMetadata();
+        rows = fixture.getRows();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pojoAutoMapping(Blackhole blackhole) {
+        mapResult(BenchmarkFixture.AUTO_RESULT_MAP, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void explicitResultMap(Blackhole blackhole) {
+        mapResult(BenchmarkFixture.EXPLICIT_RESULT_MAP, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapResult(Blackhole blackhole) {
+        mapResult(BenchmarkFixture.MAP_RESULT_MAP, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void scalarResult(Blackhole blackhole) {
+        mapResult(BenchmarkFixture.SCALAR_RESULT_MAP, blackhole);
+    }
+
+    /**
+     * 不经过 Result 的单行接口，每行都要查一次计划缓存
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void convertRowToResult(Blackhole blackhole) {
+        ResultMap resultMap = fixture.getResultMap(BenchmarkFixture.AUTO_RESULT_MAP);
+        for (StubRow row : rows) {
+            blackhole.consume(fixture.getSession().convertRowToResult(row, rowMetadata, resultMap));
+        }
+    }
+
+    private void mapResult(String resultMapId, Blackhole blackhole) {
+        ResultMap resultMap = fixture.getResultMap(resultMapId);
+        BiFunction<Row, RowMetadata, Object> mapper = fixture.getConfiguration().getRowMapper(resultMap).forResult();
+        for (StubRow row : rows) {
+            blackhole.consume(mapper.apply(row, rowMetadata));
+        }
+    }
+}
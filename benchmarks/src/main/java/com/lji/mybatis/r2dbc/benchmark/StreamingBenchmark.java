@@ -0,0 +1,121 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+import com.lji.mybatis.r2dbc.base.impl.DefaultReactiveSqlSession;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnection;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubConnectionFactory;
+import com.lji.mybatis.r2dbc.benchmark.stub.StubResult;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1000 万行的流式查询，一次操作 = 读完整个结果：下游每次 request 1024 行，
+ * 辅助计数 maxDriverRequest 是驱动收到的最大单次请求，
+ * heapGrowthMb 是读取过程中已用堆相对开始时的最大增长，流式读取时应保持平稳而不随行数增长
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xmx256m"})
+public class StreamingBenchmark {
+
+    private static final long ROWS = 10_000_000L;
+
+    private static final int DOWNSTREAM_REQUEST = 1024;
+
+    private static final long SAMPLE_INTERVAL = 1 << 20;
+
+    /**
+     * 0 表示不限流，下游请求多少就向驱动请求多少
+     */
+    @Param({"0", "256"})
+    public int resultPrefetch;
+
+    private BenchmarkFixture fixture;
+
+    private DefaultReactiveSqlSession session;
+
+    private StubConnection connection;
+
+    @Setup
+    public void setup() {
+        fixture = new BenchmarkFixture(16, 1024);
+        fixture.getConfiguration().setResultPrefetch(resultPrefetch);
+        connection = new StubConnection(sql -> new StubResult(fixture.getRowMetadata(), fixture.getRows(), ROWS));
+        session = fixture.newSession(new StubConnectionFactory(connection));
+    }
+
+    @Benchmark
+    public void stream(StreamCounters counters, Blackhole blackhole) {
+        Runtime runtime = Runtime.getRuntime();
+        long baseline = runtime.totalMemory() - runtime.freeMemory();
+        Mono.<Void>create(sink -> session.select(BenchmarkFixture.SELECT_STATEMENT).subscribe(new BaseSubscriber<Object>() {
+            private long received;
+
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(DOWNSTREAM_REQUEST);
+            }
+
+            @Override
+            protected void hookOnNext(Object value) {
+                blackhole.consume(value);
+                if (++received % SAMPLE_INTERVAL == 0) {
+                    long growth = runtime.totalMemory() - runtime.freeMemory() - baseline;
+                    counters.heapGrowthMb = Math.max(counters.heapGrowthMb, growth >> 20);
+                }
+                if (received % DOWNSTREAM_REQUEST == 0) {
+                    request(DOWNSTREAM_REQUEST);
+                }
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                sink.success();
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                sink.error(throwable);
+            }
+        })).block();
+        counters.maxDriverRequest = Math.max(counters.maxDriverRequest,
+                ((StubResult) connection.getLastStatement().getResults()[0]).getMaxRequest());
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StreamCounters {
+
+        public long maxDriverRequest;
+
+        public long heapGrowthMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            maxDriverRequest = 0;
+            heapGrowthMb = 0;
+        }
+    }
+}
@@ -0,0 +1,650 @@
+package com.lji.mybatis.r2dbc.benchmark;
+
+/**
+ * 64 列的宽表 POJO，偶数列为 Long，奇数列为 String
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class WideRow {
+
+    private Long c0;
+
+    private String c1;
+
+    private Long c2;
+
+    private String c3;
+
+    private Long c4;
+
+    private String c5;
+
+    private Long c6;
+
+    private String c7;
+
+    private Long c8;
+
+    private String c9;
+
+    private Long c10;
+
+    private String c11;
+
+    private Long c12;
+
+    private String c13;
+
+    private Long c14;
+
+    private String c15;
+
+    private Long c16;
+
+    private String c17;
+
+    private Long c18;
+
+    private String c19;
+
+    private Long c20;
+
+    private String c21;
+
+    private Long c22;
+
+    private String c23;
+
+    private Long c24;
+
+    private String c25;
+
+    private Long c26;
+
+    private String c27;
+
+    private Long c28;
+
+    private String c29;
+
+    private Long c30;
+
+    private String c31;
+
+    private Long c32;
+
+    private String c33;
+
+    private Long c34;
+
+    private String c35;
+
+    private Long c36;
+
+    private String c37;
+
+    private Long c38;
+
+    private String c39;
+
+    private Long c40;
+
+    private String c41;
+
+    private Long c42;
+
+    private String c43;
+
+    private Long c44;
+
+    private String c45;
+
+    private Long c46;
+
+    private String c47;
+
+    private Long c48;
+
+    private String c49;
+
+    private Long c50;
+
+    private String c51;
+
+    private Long c52;
+
+    private String c53;
+
+    private Long c54;
+
+    private String c55;
+
+    private Long c56;
+
+    private String c57;
+
+    private Long c58;
+
+    private String c59;
+
+    private Long c60;
+
+    private String c61;
+
+    private Long c62;
+
+    private String c63;
+
+    public Long getC0() {
+        return c0;
+    }
+
+    public void setC0(Long c0) {
+        this.c0 = c0;
+    }
+
+    public String getC1() {
+        return c1;
+    }
+
+    public void setC1(String c1) {
+        this.c1 = c1;
+    }
+
+    public Long getC2() {
+        return c2;
+    }
+
+    public void setC2(Long c2) {
+        this.c2 = c2;
+    }
+
+    public String getC3() {
+        return c3;
+    }
+
+    public void setC3(String c3) {
+        this.c3 = c3;
+    }
+
+    public Long getC4() {
+        return c4;
+    }
+
+    public void setC4(Long c4) {
+        this.c4 = c4;
+    }
+
+    public String getC5() {
+        return c5;
+    }
+
+    public void setC5(String c5) {
+        this.c5 = c5;
+    }
+
+    public Long getC6() {
+        return c6;
+    }
+
+    public void setC6(Long c6) {
+        this.c6 = c6;
+    }
+
+    public String getC7() {
+        return c7;
+    }
+
+    public void setC7(String c7) {
+        this.c7 = c7;
+    }
+
+    public Long getC8() {
+        return c8;
+    }
+
+    public void setC8(Long c8) {
+        this.c8 = c8;
+    }
+
+    public String getC9() {
+        return c9;
+    }
+
+    public void setC9(String c9) {
+        this.c9 = c9;
+    }
+
+    public Long getC10() {
+        return c10;
+    }
+
+    public void setC10(Long c10) {
+        this.c10 = c10;
+    }
+
+    public String getC11() {
+        return c11;
+    }
+
+    public void setC11(String c11) {
+        this.c11 = c11;
+    }
+
+    public Long getC12() {
+        return c12;
+    }
+
+    public void setC12(Long c12) {
+        this.c12 = c12;
+    }
+
+    public String getC13() {
+        return c13;
+    }
+
+    public void setC13(String c13) {
+        this.c13 = c13;
+    }
+
+    public Long getC14() {
+        return c14;
+    }
+
+    public void setC14(Long c14) {
+        this.c14 = c14;
+    }
+
+    public String getC15() {
+        return c15;
+    }
+
+    public void setC15(String c15) {
+        this.c15 = c15;
+    }
+
+    public Long getC16() {
+        return c16;
+    }
+
+    public void setC16(Long c16) {
+        this.c16 = c16;
+    }
+
+    public String getC17() {
+        return c17;
+    }
+
+    public void setC17(String c17) {
+        this.c17 = c17;
+    }
+
+    public Long getC18() {
+        return c18;
+    }
+
+    public void setC18(Long c18) {
+        this.c18 = c18;
+    }
+
+    public String getC19() {
+        return c19;
+    }
+
+    public void setC19(String c19) {
+        this.c19 = c19;
+    }
+
+    public Long getC20() {
+        return c20;
+    }
+
+    public void setC20(Long c20) {
+        this.c20 = c20;
+    }
+
+    public String getC21() {
+        return c21;
+    }
+
+    public void setC21(String c21) {
+        this.c21 = c21;
+    }
+
+    public Long getC22() {
+        return c22;
+    }
+
+    public void setC22(Long c22) {
+        this.c22 = c22;
+    }
+
+    public String getC23() {
+        return c23;
+    }
+
+    public void setC23(String c23) {
+        this.c23 = c23;
+    }
+
+    public Long getC24() {
+        return c24;
+    }
+
+    public void setC24(Long c24) {
+        this.c24 = c24;
+    }
+
+    public String getC25() {
+        return c25;
+    }
+
+    public void setC25(String c25) {
+        this.c25 = c25;
+    }
+
+    public Long getC26() {
+        return c26;
+    }
+
+    public void setC26(Long c26) {
+        this.c26 = c26;
+    }
+
+    public String getC27() {
+        return c27;
+    }
+
+    public void setC27(String c27) {
+        this.c27 = c27;
+    }
+
+    public Long getC28() {
+        return c28;
+    }
+
+    public void setC28(Long c28) {
+        this.c28 = c28;
+    }
+
+    public String getC29() {
+        return c29;
+    }
+
+    public void setC29(String c29) {
+        this.c29 = c29;
+    }
+
+    public Long getC30() {
+        return c30;
+    }
+
+    public void setC30(Long c30) {
+        this.c30 = c30;
+    }
+
+    public String getC31() {
+        return c31;
+    }
+
+    public void setC31(String c31) {
+        this.c31 = c31;
+    }
+
+    public Long getC32() {
+        return c32;
+    }
+
+    public void setC32(Long c32) {
+        this.c32 = c32;
+    }
+
+    public String getC33() {
+        return c33;
+    }
+
+    public void setC33(String c33) {
+        this.c33 = c33;
+    }
+
+    public Long getC34() {
+        return c34;
+    }
+
+    public void setC34(Long c34) {
+        this.c34 = c34;
+    }
+
+    public String getC35() {
+        return c35;
+    }
+
+    public void setC35(String c35) {
+        this.c35 = c35;
+    }
+
+    public Long getC36() {
+        return c36;
+    }
+
+    public void setC36(Long c36) {
+        this.c36 = c36;
+    }
+
+    public String getC37() {
+        return c37;
+    }
+
+    public void setC37(String c37) {
+        this.c37 = c37;
+    }
+
+    public Long getC38() {
+        return c38;
+    }
+
+    public void setC38(Long c38) {
+        this.c38 = c38;
+    }
+
+    public String getC39() {
+        return c39;
+    }
+
+    public void setC39(String c39) {
+        this.c39 = c39;
+    }
+
+    public Long getC40() {
+        return c40;
+    }
+
+    public void setC40(Long c40) {
+        this.c40 = c40;
+    }
+
+    public String getC41() {
+        return c41;
+    }
+
+    public void setC41(String c41) {
+        this.c41 = c41;
+    }
+
+    public Long getC42() {
+        return c42;
+    }
+
+    public void setC42(Long c42) {
+        this.c42 = c42;
+    }
+
+    public String getC43() {
+        return c43;
+    }
+
+    public void setC43(String c43) {
+        this.c43 = c43;
+    }
+
+    public Long getC44() {
+        return c44;
+    }
+
+    public void setC44(Long c44) {
+        this.c44 = c44;
+    }
+
+    public String getC45() {
+        return c45;
+    }
+
+    public void setC45(String c45) {
+        this.c45 = c45;
+    }
+
+    public Long getC46() {
+        return c46;
+    }
+
+    public void setC46(Long c46) {
+        this.c46 = c46;
+    }
+
+    public String getC47() {
+        return c47;
+    }
+
+    public void setC47(String c47) {
+        this.c47 = c47;
+    }
+
+    public Long getC48() {
+        return c48;
+    }
+
+    public void setC48(Long c48) {
+        this.c48 = c48;
+    }
+
+    public String getC49() {
+        return c49;
+    }
+
+    public void setC49(String c49) {
+        this.c49 = c49;
+    }
+
+    public Long getC50() {
+        return c50;
+    }
+
+    public void setC50(Long c50) {
+        this.c50 = c50;
+    }
+
+    public String getC51() {
+        return c51;
+    }
+
+    public void setC51(String c51) {
+        this.c51 = c51;
+    }
+
+    public Long getC52() {
+        return c52;
+    }
+
+    public void setC52(Long c52) {
+        this.c52 = c52;
+    }
+
+    public String getC53() {
+        return c53;
+    }
+
+    public void setC53(String c53) {
+        this.c53 = c53;
+    }
+
+    public Long getC54() {
+        return c54;
+    }
+
+    public void setC54(Long c54) {
+        this.c54 = c54;
+    }
+
+    public String getC55() {
+        return c55;
+    }
+
+    public void setC55(String c55) {
+        this.c55 = c55;
+    }
+
+    public Long getC56() {
+        return c56;
+    }
+
+    public void setC56(Long c56) {
+        this.c56 = c56;
+    }
+
+    public String getC57() {
+        return c57;
+    }
+
+    public void setC57(String c57) {
+        this.c57 = c57;
+    }
+
+    public Long getC58() {
+        return c58;
+    }
+
+    public void setC58(Long c58) {
+        this.c58 = c58;
+    }
+
+    public String getC59() {
+        return c59;
+    }
+
+    public void setC59(String c59) {
+        this.c59 = c59;
+    }
+
+    public Long getC60() {
+        return c60;
+    }
+
+    public void setC60(Long c60) {
+        this.c60 = c60;
+    }
+
+    public String getC61() {
+        return c61;
+    }
+
+    public void setC61(String c61) {
+        this.c61 = c61;
+    }
+
+    public Long getC62() {
+        return c62;
+    }
+
+    public void setC62(Long c62) {
+        this.c62 = c62;
+    }
+
+    public String getC63() {
+        return c63;
+    }
+
+    public void setC63(String c63) {
+        this.c63 = c63;
+    }
+}
@@ -0,0 +1,31 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.ColumnMetadata;
+
+/**
+ * 内存列元数据
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubColumnMetadata implements ColumnMetadata {
+
+    private final String name;
+
+    private final Class<?> javaType;
+
+    public StubColumnMetadata(String name, Class<?> javaType) {
+        this.name = name;
+        this.javaType = javaType;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Class<?> getJavaType() {
+        return javaType;
+    }
+}
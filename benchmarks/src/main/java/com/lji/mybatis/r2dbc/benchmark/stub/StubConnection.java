@@ -0,0 +1,121 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.ValidationDepth;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * 每条 SQL 都返回新的 {@link StubStatement}，结果由构造参数按 SQL 生成；不支持事务和批量
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubConnection implements Connection {
+
+    private final Function<String, Result> results;
+
+    private volatile StubStatement lastStatement;
+
+    public StubConnection(Function<String, Result> results) {
+        this.results = results;
+    }
+
+    public StubStatement getLastStatement() {
+        return lastStatement;
+    }
+
+    @Override
+    public Statement createStatement(String sql) {
+        StubStatement statement = new StubStatement(results.apply(sql));
+        lastStatement = statement;
+        return statement;
+    }
+
+    @Override
+    public Publisher<Void> close() {
+        return Mono.empty();
+    }
+
+    @Override
+    public Publisher<Void> beginTransaction() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<Void> commitTransaction() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Batch createBatch() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<Void> createSavepoint(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isAutoCommit() {
+        return true;
+    }
+
+    @Override
+    public ConnectionMetadata getMetadata() {
+        return new ConnectionMetadata() {
+            @Override
+            public String getDatabaseProductName() {
+                return "stub";
+            }
+
+            @Override
+            public String getDatabaseVersion() {
+                return "1";
+            }
+        };
+    }
+
+    @Override
+    public IsolationLevel getTransactionIsolationLevel() {
+        return IsolationLevel.READ_COMMITTED;
+    }
+
+    @Override
+    public Publisher<Void> releaseSavepoint(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransaction() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Publisher<Void> setAutoCommit(boolean autoCommit) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Publisher<Boolean> validate(ValidationDepth depth) {
+        return Mono.just(true);
+    }
+}
@@ -0,0 +1,32 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+/**
+ * 总是返回同一个 {@link StubConnection}
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubConnectionFactory implements ConnectionFactory {
+
+    private final StubConnection connection;
+
+    public StubConnectionFactory(StubConnection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.just(connection);
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return () -> "stub";
+    }
+}
@@ -0,0 +1,58 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * 按需生成行的结果：循环输出预设的行，共 rowCount 行，只在被请求时生成；记录单次请求的最大行数，用于观察背压是否生效
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubResult implements Result {
+
+    private final StubRowMetadata metadata;
+
+    private final StubRow[] rows;
+
+    private final long rowCount;
+
+    private final AtomicLong maxRequest = new AtomicLong();
+
+    public StubResult(StubRowMetadata metadata, StubRow[] rows, long rowCount) {
+        this.metadata = metadata;
+        this.rows = rows;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return 单次 request(n) 的最大 n，下游不限量请求时为 Long.MAX_VALUE
+     */
+    public long getMaxRequest() {
+        return maxRequest.get();
+    }
+
+    @Override
+    public Publisher<Integer> getRowsUpdated() {
+        return Mono.empty();
+    }
+
+    @Override
+    public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+        return Flux.<T, Long>generate(() -> 0L, (index, sink) -> {
+            if (index >= rowCount) {
+                sink.complete();
+            } else {
+                sink.next(mappingFunction.apply(rows[(int) (index % rows.length)], metadata));
+            }
+            return index + 1;
+        }).doOnRequest(n -> maxRequest.accumulateAndGet(n, Math::max));
+    }
+}
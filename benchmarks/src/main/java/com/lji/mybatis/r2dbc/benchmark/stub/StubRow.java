@@ -0,0 +1,37 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.Row;
+
+/**
+ * 内存行，值按列下标存放
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubRow implements Row {
+
+    private final StubRowMetadata metadata;
+
+    private final Object[] values;
+
+    public StubRow(StubRowMetadata metadata, Object[] values) {
+        this.metadata = metadata;
+        this.values = values;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        Object value = values[index];
+        if (value == null || type == Object.class) {
+            @SuppressWarnings("unchecked")
+            T result = (T) value;
+            return result;
+        }
+        return type.cast(value);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(metadata.indexOf(name), type);
+    }
+}
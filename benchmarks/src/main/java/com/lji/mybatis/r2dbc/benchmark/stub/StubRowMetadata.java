@@ -0,0 +1,58 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 内存行元数据
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubRowMetadata implements RowMetadata {
+
+    private final List<StubColumnMetadata> columns;
+
+    private final List<String> columnNames = new ArrayList<>();
+
+    public StubRowMetadata(List<StubColumnMetadata> columns) {
+        this.columns = columns;
+        for (StubColumnMetadata column : columns) {
+            columnNames.add(column.getName());
+        }
+    }
+
+    public int indexOf(String name) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + name);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(int index) {
+        return columns.get(index);
+    }
+
+    @Override
+    public ColumnMetadata getColumnMetadata(String name) {
+        return columns.get(indexOf(name));
+    }
+
+    @Override
+    public Iterable<? extends ColumnMetadata> getColumnMetadatas() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    @Override
+    public Collection<String> getColumnNames() {
+        return Collections.unmodifiableList(columnNames);
+    }
+}
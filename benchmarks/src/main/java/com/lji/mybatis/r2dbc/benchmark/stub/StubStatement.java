@@ -0,0 +1,90 @@
+package com.lji.mybatis.r2dbc.benchmark.stub;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 只记录绑定值的语句，execute 返回预设的结果
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StubStatement implements Statement {
+
+    private final List<Object[]> bindings = new ArrayList<>();
+
+    private final Result[] results;
+
+    private Object[] current = new Object[16];
+
+    private int fetchSize;
+
+    public StubStatement(Result... results) {
+        this.results = results;
+    }
+
+    public Object[] getCurrentBindings() {
+        return current;
+    }
+
+    public Result[] getResults() {
+        return results;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void reset() {
+        bindings.clear();
+        Arrays.fill(current, null);
+    }
+
+    @Override
+    public Statement add() {
+        bindings.add(current.clone());
+        Arrays.fill(current, null);
+        return this;
+    }
+
+    @Override
+    public Statement bind(int index, Object value) {
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        }
+        current[index] = value;
+        return this;
+    }
+
+    @Override
+    public Statement bind(String name, Object value) {
+        throw new UnsupportedOperationException("Named parameters are not supported: " + name);
+    }
+
+    @Override
+    public Statement bindNull(int index, Class<?> type) {
+        return bind(index, null);
+    }
+
+    @Override
+    public Statement bindNull(String name, Class<?> type) {
+        throw new UnsupportedOperationException("Named parameters are not supported: " + name);
+    }
+
+    @Override
+    public Statement fetchSize(int rows) {
+        this.fetchSize = rows;
+        return this;
+    }
+
+    @Override
+    public Publisher<? extends Result> execute() {
+        return Flux.fromArray(results);
+    }
+}
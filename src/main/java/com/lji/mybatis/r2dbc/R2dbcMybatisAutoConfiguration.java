@@ -1,15 +1,29 @@
 package com.lji.mybatis.r2dbc;
 
 import com.lji.mybatis.r2dbc.base.ReactiveSqlSessionFactory;
+import com.lji.mybatis.r2dbc.base.execution.SlowQueryLog;
+import com.lji.mybatis.r2dbc.base.loader.NestedSelect;
+import com.lji.mybatis.r2dbc.base.routing.ReplicaRouter;
+import com.lji.mybatis.r2dbc.base.sharding.ShardRouter;
+import com.lji.mybatis.r2dbc.base.sharding.ShardingStrategy;
 import com.lji.mybatis.r2dbc.base.impl.DefaultReactiveSqlSessionFactory;
 import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import com.lji.mybatis.r2dbc.conf.R2dbcMybatisMetrics;
 import com.lji.mybatis.r2dbc.conf.R2dbcMybatisProperties;
+import com.lji.mybatis.r2dbc.conf.SlowQueryEndpoint;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.executor.ErrorContext;
 import org.mybatis.spring.mapper.MapperFactoryBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -20,6 +34,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.springframework.util.StringUtils.hasLength;
 import static org.springframework.util.StringUtils.tokenizeToStringArray;
@@ -38,8 +54,40 @@ public class R2dbcMybatisAutoConfiguration {
     private static final Logger logger = LoggerFactory.getLogger(R2dbcMybatisAutoConfiguration.class);
 
     @Bean
-    public R2dbcConfiguration configuration(R2dbcMybatisProperties properties) {
+    public R2dbcConfiguration configuration(R2dbcMybatisProperties properties, ObjectProvider<ReplicaRouter> replicaRouter,
+                                            ObjectProvider<ShardingStrategy> shardingStrategy) {
         R2dbcConfiguration configuration = new R2dbcConfiguration();
+        configuration.setRowMappingPlanCacheSize(properties.getRowMappingPlanCacheSize());
+        configuration.setStatementPlanCacheSize(properties.getStatementPlanCacheSize());
+        configuration.setSelectOnePolicy(properties.getSelectOnePolicy());
+        configuration.setBatchSize(properties.getBatchSize());
+        configuration.setMultiRowMaxParameters(properties.getMultiRowMaxParameters());
+        configuration.setMultiRowMaxBytes(properties.getMultiRowMaxBytes());
+        configuration.addCoalescedStatements(properties.getCoalescedStatements());
+        configuration.setBatchLoadWindow(properties.getBatchLoadWindow());
+        configuration.setBatchLoadMaxSize(properties.getBatchLoadMaxSize());
+        configuration.setNestedResultBufferSize(properties.getNestedResultBufferSize());
+        configuration.setNestedSelectBatchSize(properties.getNestedSelectBatchSize());
+        configuration.setNestedSelectConcurrency(properties.getNestedSelectConcurrency());
+        configuration.addBatchSelectStatements(properties.getBatchSelectStatements());
+        configuration.setDefaultFetchSize(properties.getDefaultFetchSize());
+        configuration.setDefaultStatementTimeout(properties.getDefaultStatementTimeout());
+        configuration.setResultPrefetch(properties.getResultPrefetch());
+        configuration.setEncodedBufferSize(properties.getEncodedBufferSize());
+        configuration.setResultChunkSize(properties.getResultChunkSize());
+        if (properties.getSlowQueryThreshold() != null || !properties.getSlowQueryThresholds().isEmpty()
+                || properties.getSlowQuerySampleRate() > 0) {
+            configuration.setSlowQueryLog(new SlowQueryLog(properties.getSlowQueryThreshold(), properties.getSlowQueryThresholds(),
+                    properties.getSlowQuerySampleRate(), properties.getSlowQueryRedactedParameters(), properties.getSlowQueryLogSize()));
+        }
+        configuration.setReplicaRouter(replicaRouter.getIfAvailable(() -> replicaRouter(properties)));
+        configuration.addPrimaryStatements(properties.getPrimaryStatements());
+        if (!properties.getShardUrls().isEmpty()) {
+            configuration.setShardRouter(shardRouter(configuration, properties, shardingStrategy.getIfAvailable(() -> ShardingStrategy.MODULO)));
+        }
+        if (hasLength(properties.getDatabaseId())) {
+            configuration.setDatabaseId(properties.getDatabaseId());
+        }
 
         if (hasLength(properties.getTypeAliasesPackage())) {
             String[] typeAliasPackageArray = tokenizeToStringArray(properties.getTypeAliasesPackage(),
@@ -74,12 +122,69 @@ public class R2dbcMybatisAutoConfiguration {
         return configuration;
     }
 
+    private static ReplicaRouter replicaRouter(R2dbcMybatisProperties properties) {
+        if (properties.getReplicaUrls().isEmpty()) {
+            return null;
+        }
+        List<ConnectionFactory> replicas = new ArrayList<>();
+        for (String url : properties.getReplicaUrls()) {
+            replicas.add(ConnectionFactories.get(url));
+        }
+        return new ReplicaRouter(replicas, properties.getReplicaSelection(), properties.getReplicaEjectAfterFailures(),
+                properties.getReplicaEjectDuration());
+    }
+
+    private static ShardRouter shardRouter(R2dbcConfiguration configuration, R2dbcMybatisProperties properties,
+                                           ShardingStrategy shardingStrategy) {
+        List<ConnectionFactory> shards = new ArrayList<>();
+        for (String url : properties.getShardUrls()) {
+            shards.add(ConnectionFactories.get(url));
+        }
+        ShardRouter shardRouter = new ShardRouter(configuration, shards, shardingStrategy, properties.getShardKeyProperty(),
+                properties.getShardMaxConcurrency());
+        properties.getShardedStatements().forEach(shardRouter::addShardedStatement);
+        properties.getShardKeyProperties().forEach(shardRouter::setKeyProperty);
+        properties.getShardMergeOrders().forEach(shardRouter::setMergeOrder);
+        return shardRouter;
+    }
+
+    /**
+     * 所有 mapper 注册完（@BatchSelect 随 mapper 接口登记）之后检查 select= 嵌套查询是否批量
+     */
+    @Bean
+    public SmartInitializingSingleton nestedSelectBatchCheck(R2dbcConfiguration configuration) {
+        return () -> NestedSelect.warnUnbatched(configuration);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public ReactiveSqlSessionFactory reactiveSqlSessionFactory(R2dbcConfiguration config, ConnectionFactory connectionFactory) {
         return new DefaultReactiveSqlSessionFactory(config, connectionFactory);
     }
 
+    @org.springframework.context.annotation.Configuration
+    @ConditionalOnClass(MeterBinder.class)
+    public static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public R2dbcMybatisMetrics r2dbcMybatisMetrics(R2dbcConfiguration configuration, R2dbcMybatisProperties properties) {
+            return new R2dbcMybatisMetrics(configuration, properties.isStatementMetricsEnabled());
+        }
+    }
+
+    @org.springframework.context.annotation.Configuration
+    @ConditionalOnClass(Endpoint.class)
+    public static class SlowQueryEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public SlowQueryEndpoint slowQueryEndpoint(R2dbcConfiguration configuration) {
+            return new SlowQueryEndpoint(configuration);
+        }
+    }
+
     @org.springframework.context.annotation.Configuration
     @Import({ R2dbcAutoConfiguredMapperScannerRegistrar.class })
     @ConditionalOnMissingBean(R2dbcMapperFactoryBean.class)
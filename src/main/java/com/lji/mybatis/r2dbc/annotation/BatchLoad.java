@@ -0,0 +1,41 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在按 key 查单行的方法上（如 {@code Mono<User> findById(Long id)}），一个时间窗口内的调用合并成一次
+ * {@link #statement()} 查询，该语句以 key 列表为参数（{@code <foreach collection="list">}），结果按 {@link #keyProperty()} 分发；
+ * 被标注的方法本身可以没有对应的语句
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BatchLoad {
+
+    /**
+     * 批量查询的语句 id，不含 namespace 时取当前 mapper 的 namespace
+     */
+    String statement();
+
+    /**
+     * 结果中与 key 对应的属性
+     */
+    String keyProperty();
+
+    /**
+     * 收集 key 的时间窗口（毫秒），小于 0 时使用 r2dbc.mybatis.batch-load-window
+     */
+    long windowMillis() default -1;
+
+    /**
+     * 每批最多的 key 个数，小于等于 0 时使用 r2dbc.mybatis.batch-load-max-size
+     */
+    int maxBatchSize() default -1;
+}
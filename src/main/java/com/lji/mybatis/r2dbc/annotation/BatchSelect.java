@@ -0,0 +1,26 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在被 association/collection 的 select= 引用的方法上，声明该语句以一批父 key 的列表为参数
+ * （{@code <foreach collection="list">}），嵌套查询每批父对象只执行一次，结果按 {@link #keyProperty()} 分给父对象；
+ * 等价于在 r2dbc.mybatis.batch-select-statements 中配置语句 id 到 keyProperty。没有声明的语句每个 key 查一次
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BatchSelect {
+
+    /**
+     * 子对象中与父 key 对应的属性
+     */
+    String keyProperty();
+}
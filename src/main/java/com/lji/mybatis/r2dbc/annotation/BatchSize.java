@@ -0,0 +1,21 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在参数为 {@code Publisher} 的 insert/update/delete 方法上，指定每批提交的元素个数，未标注时使用 r2dbc.mybatis.batch-size
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface BatchSize {
+
+    int value();
+}
@@ -0,0 +1,20 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在 select 方法上，相同语句、相同参数的查询在执行期间到达时共享同一次执行的结果；
+ * 共享的订阅拿到的是同一批结果对象；等价于把语句 id 加入 r2dbc.mybatis.coalesced-statements
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalesce {
+}
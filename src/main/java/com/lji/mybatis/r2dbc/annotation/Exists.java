@@ -0,0 +1,19 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在返回 {@code Mono<Boolean>} 的 select 方法上，查到第一行即返回 true 并取消结果流
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Exists {
+}
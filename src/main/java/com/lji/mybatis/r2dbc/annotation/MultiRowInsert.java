@@ -0,0 +1,21 @@
+package com.lji.mybatis.r2dbc.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在参数为 {@code Publisher} 或集合的单行 insert 方法上，合并成多行 VALUES (...),(...) 执行，
+ * 每条语句的大小受 r2dbc.mybatis.multi-row-max-parameters / multi-row-max-bytes 限制；方法返回 {@code Mono<Long>}。
+ * 要回填主键（useGeneratedKeys）的语句不合并，逐行绑定后一次执行
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MultiRowInsert {
+}
@@ -1,10 +1,19 @@
 package com.lji.mybatis.r2dbc.base;
 
+import com.lji.mybatis.r2dbc.base.columnar.ColumnBatch;
+import com.lji.mybatis.r2dbc.base.encoding.RowFormat;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
 /**
  * Reactive SQL Session
  *
@@ -18,6 +27,24 @@ public interface ReactiveSqlSession {
 
     <T> Mono<T> selectOne(String statementId, Object parameter);
 
+    default <T> Mono<T> findFirst(String statementId) {
+        return findFirst(statementId, null);
+    }
+
+    /**
+     * 只取第一行，之后立即取消结果流
+     */
+    <T> Mono<T> findFirst(String statementId, Object parameter);
+
+    default Mono<Boolean> exists(String statementId) {
+        return exists(statementId, null);
+    }
+
+    /**
+     * 是否至少有一行，不做行映射，第一行到达后立即取消结果流
+     */
+    Mono<Boolean> exists(String statementId, Object parameter);
+
     default <T> Flux<T> select(String statementId) {
         return select(statementId, null);
     }
@@ -26,6 +53,41 @@ public interface ReactiveSqlSession {
 
     <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds);
 
+    /**
+     * 不做对象映射，把行直接编码成 JSON / NDJSON / CSV 写入 bufferFactory 分配的 DataBuffer，
+     * 每块约 encodedBufferSize 字节（包含多行），可以直接写给 WebFlux 的响应；不走二级缓存，不处理嵌套查询
+     */
+    Flux<DataBuffer> selectEncoded(String statementId, Object parameter, RowFormat format, DataBufferFactory bufferFactory);
+
+    /**
+     * 按 resultChunkSize 分批的 {@link #select(String, Object)}
+     */
+    <T> Flux<List<T>> selectChunked(String statementId, Object parameter);
+
+    /**
+     * 与 select 相同的结果（二级缓存、嵌套映射照常），每 chunkSize 个装进一个预先分配好容量的 List 输出，
+     * 下游每请求一批向上游请求 chunkSize 个
+     */
+    <T> Flux<List<T>> selectChunked(String statementId, Object parameter, int chunkSize);
+
+    /**
+     * 按 resultChunkSize 分批的 {@link #selectColumns(String, Object, int)}
+     */
+    Flux<ColumnBatch> selectColumns(String statementId, Object parameter);
+
+    /**
+     * 不做对象映射，按列读进基本类型数组（见 {@link ColumnBatch}），每 batchSize 行输出一批；不走二级缓存，不处理嵌套映射
+     */
+    Flux<ColumnBatch> selectColumns(String statementId, Object parameter, int batchSize);
+
+    /**
+     * 按 key 批量加载：时间窗口内的调用合并成一次 statementId 查询（参数为 key 列表，即 foreach collection="list"），
+     * 结果按 keyProperty 分发；事务中不合并，直接在事务连接上查询
+     */
+    <T> Mono<T> selectByKey(String statementId, String keyProperty, Object key);
+
+    <T> Mono<T> selectByKey(String statementId, String keyProperty, Object key, Duration window, int maxBatchSize);
+
     default Mono<Integer> insert(String statementId) {
         return insert(statementId, null);
     }
@@ -44,6 +106,50 @@ public interface ReactiveSqlSession {
 
     Mono<Integer> delete(String statementId, Object parameter);
 
+    default Flux<Integer> insertBatch(String statementId, Iterable<?> parameters) {
+        return insertBatch(statementId, Flux.fromIterable(parameters));
+    }
+
+    /**
+     * 批量执行，所有参数在同一个连接上按 batchSize 分块执行，返回每个参数对应的更新行数；
+     * 参数流按需拉取，同一时间最多缓存一块
+     */
+    Flux<Integer> insertBatch(String statementId, Publisher<?> parameters);
+
+    Flux<Integer> insertBatch(String statementId, Publisher<?> parameters, int batchSize);
+
+    default Flux<Integer> updateBatch(String statementId, Iterable<?> parameters) {
+        return updateBatch(statementId, Flux.fromIterable(parameters));
+    }
+
+    Flux<Integer> updateBatch(String statementId, Publisher<?> parameters);
+
+    Flux<Integer> updateBatch(String statementId, Publisher<?> parameters, int batchSize);
+
+    default Flux<Integer> deleteBatch(String statementId, Iterable<?> parameters) {
+        return deleteBatch(statementId, Flux.fromIterable(parameters));
+    }
+
+    Flux<Integer> deleteBatch(String statementId, Publisher<?> parameters);
+
+    Flux<Integer> deleteBatch(String statementId, Publisher<?> parameters, int batchSize);
+
+    default Mono<Long> insertMultiRow(String statementId, Iterable<?> parameters) {
+        return insertMultiRow(statementId, Flux.fromIterable(parameters));
+    }
+
+    /**
+     * 把单行 INSERT ... VALUES (...) 合并成多行 VALUES (...),(...) 执行，每条语句不超过配置的参数个数和 SQL 长度，
+     * 返回插入的总行数；不能改写的语句逐条执行，要回填主键（useGeneratedKeys）的语句不合并，按单行 SQL 逐行绑定后一次执行
+     */
+    Mono<Long> insertMultiRow(String statementId, Publisher<?> parameters);
+
+    /**
+     * 在同一个事务（同一个连接）中执行回调里的所有语句，回调正常结束时提交，出错或取消时回滚；
+     * 也可以直接使用 Spring 的 TransactionalOperator / @Transactional，效果相同
+     */
+    <T> Flux<T> inTransaction(Function<ReactiveSqlSession, ? extends Publisher<T>> callback);
+
     Configuration getConfiguration();
 
     <T> T getMapper(Class<T> clazz);
@@ -0,0 +1,20 @@
+package com.lji.mybatis.r2dbc.base;
+
+/**
+ * selectOne 查到多行时的处理方式
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public enum SelectOnePolicy {
+
+    /**
+     * 返回第一行，只读取一行
+     */
+    FIRST,
+
+    /**
+     * 抛出 TooManyResultsException，最多读取两行
+     */
+    FAIL
+}
@@ -0,0 +1,117 @@
+package com.lji.mybatis.r2dbc.base.binding;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 直接引用方法实参的参数 Map：参数名（含 param1, param2 ...）到下标的映射按方法只算一次，
+ * 代替每次调用都新建并填充的 ParamMap；取不存在的参数名时与 ParamMap 一样抛 BindingException
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class ArgsParamMap extends AbstractMap<String, Object> {
+
+    private static final String GENERIC_NAME_PREFIX = "param";
+
+    private final Map<String, Integer> indexes;
+
+    private final Object[] args;
+
+    /**
+     * put 进来的值（如 selectKey 回填），很少用到，按需创建
+     */
+    private Map<String, Object> overrides;
+
+    ArgsParamMap(Map<String, Integer> indexes, Object[] args) {
+        this.indexes = indexes;
+        this.args = args;
+    }
+
+    /**
+     * 与 ParamNameResolver.getNamedParams 的命名规则一致
+     *
+     * @return 参数名到实参下标的映射；ParamNameResolver 不会生成 Map 的方法（无参数，或只有一个不带 @Param 的参数）返回 null
+     */
+    static Map<String, Integer> resolveIndexes(Method method, ParamNameResolver paramNameResolver) {
+        String[] names = paramNameResolver.getNames();
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Annotation[][] paramAnnotations = method.getParameterAnnotations();
+        boolean hasParamAnnotation = false;
+        int[] argIndexes = new int[names.length];
+        int named = 0;
+        for (int i = 0; i < paramTypes.length && named < names.length; i++) {
+            if (RowBounds.class.isAssignableFrom(paramTypes[i]) || ResultHandler.class.isAssignableFrom(paramTypes[i])) {
+                continue;
+            }
+            for (Annotation annotation : paramAnnotations[i]) {
+                if (annotation instanceof Param) {
+                    hasParamAnnotation = true;
+                }
+            }
+            argIndexes[named++] = i;
+        }
+        if (names.length == 0 || !hasParamAnnotation && names.length == 1) {
+            return null;
+        }
+        Map<String, Integer> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], argIndexes[i]);
+        }
+        for (int i = 0; i < names.length; i++) {
+            indexes.putIfAbsent(GENERIC_NAME_PREFIX + (i + 1), argIndexes[i]);
+        }
+        return Collections.unmodifiableMap(indexes);
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (overrides != null && overrides.containsKey(key)) {
+            return overrides.get(key);
+        }
+        Integer index = indexes.get(key);
+        if (index == null) {
+            throw new BindingException("Parameter '" + key + "' not found. Available parameters are " + keySet());
+        }
+        return args[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexes.containsKey(key) || overrides != null && overrides.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = containsKey(key) ? get(key) : null;
+        if (overrides == null) {
+            overrides = new HashMap<>();
+        }
+        overrides.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (Entry<String, Integer> entry : indexes.entrySet()) {
+            entries.put(entry.getKey(), args[entry.getValue()]);
+        }
+        if (overrides != null) {
+            entries.putAll(overrides);
+        }
+        return Collections.unmodifiableMap(entries).entrySet();
+    }
+}
@@ -1,6 +1,12 @@
 package com.lji.mybatis.r2dbc.base.binding;
 
+import com.lji.mybatis.r2dbc.annotation.BatchLoad;
+import com.lji.mybatis.r2dbc.annotation.BatchSize;
+import com.lji.mybatis.r2dbc.annotation.Exists;
+import com.lji.mybatis.r2dbc.annotation.FindFirst;
+import com.lji.mybatis.r2dbc.annotation.MultiRowInsert;
 import com.lji.mybatis.r2dbc.base.ReactiveSqlSession;
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
 import org.apache.ibatis.annotations.Flush;
 import org.apache.ibatis.annotations.MapKey;
 import org.apache.ibatis.binding.BindingException;
@@ -12,12 +18,16 @@ import org.apache.ibatis.reflection.TypeParameterResolver;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,16 +52,32 @@ public class MapperMethod {
         Object result;
         switch (command.getType()) {
             case INSERT: {
+                if (method.isMultiRowInsert()) {
+                    result = executeForMultiRowInsert(sqlSession, args);
+                    break;
+                }
+                if (method.hasPublisher()) {
+                    result = executeForPublisher(sqlSession, args);
+                    break;
+                }
                 Object param = method.convertArgsToSqlCommandParam(args);
                 result = sqlSession.insert(command.getName(), param);
                 break;
             }
             case UPDATE: {
+                if (method.hasPublisher()) {
+                    result = executeForPublisher(sqlSession, args);
+                    break;
+                }
                 Object param = method.convertArgsToSqlCommandParam(args);
                 result = sqlSession.update(command.getName(), param);
                 break;
             }
             case DELETE: {
+                if (method.hasPublisher()) {
+                    result = executeForPublisher(sqlSession, args);
+                    break;
+                }
                 Object param = method.convertArgsToSqlCommandParam(args);
                 result = sqlSession.delete(command.getName(), param);
                 break;
@@ -62,6 +88,14 @@ public class MapperMethod {
                     result = null;
                 } else if (method.returnsMany()) {
                     result = executeForMany(sqlSession, args);
+                } else if (method.isBatchLoad()) {
+                    result = executeForBatchLoad(sqlSession, args);
+                } else if (method.isExists()) {
+                    Object param = method.convertArgsToSqlCommandParam(args);
+                    result = sqlSession.exists(command.getName(), param);
+                } else if (method.isFindFirst()) {
+                    Object param = method.convertArgsToSqlCommandParam(args);
+                    result = sqlSession.findFirst(command.getName(), param);
                 } else {
                     Object param = method.convertArgsToSqlCommandParam(args);
                     return sqlSession.selectOne(command.getName(), param);
@@ -77,6 +111,53 @@ public class MapperMethod {
         return result;
     }
 
+    /**
+     * 参数里的 Publisher 逐个元素展开成一次语句调用，在同一个连接上分批执行
+     */
+    private Object executeForPublisher(ReactiveSqlSession sqlSession, Object[] args) {
+        Flux<Object> params = method.convertElementsToSqlCommandParams(args);
+        Flux<Integer> updatedRows;
+        switch (command.getType()) {
+            case INSERT:
+                updatedRows = method.hasBatchSize() ? sqlSession.insertBatch(command.getName(), params, method.getBatchSize())
+                        : sqlSession.insertBatch(command.getName(), params);
+                break;
+            case UPDATE:
+                updatedRows = method.hasBatchSize() ? sqlSession.updateBatch(command.getName(), params, method.getBatchSize())
+                        : sqlSession.updateBatch(command.getName(), params);
+                break;
+            default:
+                updatedRows = method.hasBatchSize() ? sqlSession.deleteBatch(command.getName(), params, method.getBatchSize())
+                        : sqlSession.deleteBatch(command.getName(), params);
+                break;
+        }
+        if (method.returnsMany()) {
+            return updatedRows;
+        }
+        return convertTotal(updatedRows.reduce(0L, (sum, rows) -> sum + rows));
+    }
+
+    private Object executeForMultiRowInsert(ReactiveSqlSession sqlSession, Object[] args) {
+        Flux<Object> params = method.convertElementsToSqlCommandParams(args);
+        return convertTotal(sqlSession.insertMultiRow(command.getName(), params));
+    }
+
+    private Object convertTotal(Mono<Long> total) {
+        if (Integer.class.equals(method.getReturnInferredType())) {
+            return total.map(Long::intValue);
+        }
+        return total;
+    }
+
+    private Object executeForBatchLoad(ReactiveSqlSession sqlSession, Object[] args) {
+        Object key = method.convertArgsToSqlCommandParam(args);
+        BatchLoad batchLoad = method.getBatchLoad();
+        R2dbcConfiguration configuration = (R2dbcConfiguration) sqlSession.getConfiguration();
+        Duration window = batchLoad.windowMillis() < 0 ? configuration.getBatchLoadWindow() : Duration.ofMillis(batchLoad.windowMillis());
+        int maxBatchSize = batchLoad.maxBatchSize() <= 0 ? configuration.getBatchLoadMaxSize() : batchLoad.maxBatchSize();
+        return sqlSession.selectByKey(method.getBatchLoadStatement(), batchLoad.keyProperty(), key, window, maxBatchSize);
+    }
+
     private void executeWithVoidHandler(ReactiveSqlSession sqlSession, Object[] args) {
         MappedStatement ms = sqlSession.getConfiguration().getMappedStatement(command.getName());
         if (!StatementType.CALLABLE.equals(ms.getStatementType())
@@ -147,6 +228,10 @@ public class MapperMethod {
                 if (method.getAnnotation(Flush.class) != null) {
                     name = null;
                     type = SqlCommandType.FLUSH;
+                } else if (method.getAnnotation(BatchLoad.class) != null) {
+                    // 只声明了批量语句的按 key 查询
+                    name = MethodSignature.resolveBatchLoadStatement(mapperInterface, method.getAnnotation(BatchLoad.class));
+                    type = SqlCommandType.SELECT;
                 } else {
                     throw new BindingException("Invalid bound statement (not found): "
                             + mapperInterface.getName() + "." + methodName);
@@ -193,12 +278,21 @@ public class MapperMethod {
 
         private final boolean returnsMany;
         private final boolean returnsVoid;
+        private final boolean exists;
+        private final boolean findFirst;
+        private final boolean multiRowInsert;
+        private final BatchLoad batchLoad;
+        private final String batchLoadStatement;
         private final Class<?> returnType;
         private final Class<?> returnInferredType;
         private final String mapKey;
         private final Integer resultHandlerIndex;
         private final Integer rowBoundsIndex;
+        private final Integer publisherIndex;
+        private final Integer elementsIndex;
+        private final Integer batchSize;
         private final ParamNameResolver paramNameResolver;
+        private final Map<String, Integer> paramIndexes;
 
         public MethodSignature(Configuration configuration, Class<?> mapperInterface, Method method) {
             Type resolvedReturnType = TypeParameterResolver.resolveReturnType(method, mapperInterface);
@@ -212,14 +306,59 @@ public class MapperMethod {
             this.returnInferredType = parseInferredClass(method.getGenericReturnType());
             this.returnsVoid = this.returnInferredType.equals(Void.TYPE);
             this.returnsMany = this.returnType.equals(Flux.class);
+            this.exists = method.isAnnotationPresent(Exists.class);
+            this.findFirst = method.isAnnotationPresent(FindFirst.class);
             this.mapKey = getMapKey(method);
             this.rowBoundsIndex = getUniqueParamIndex(method, RowBounds.class);
             this.resultHandlerIndex = getUniqueParamIndex(method, ResultHandler.class);
+            this.multiRowInsert = method.isAnnotationPresent(MultiRowInsert.class);
+            this.batchLoad = method.getAnnotation(BatchLoad.class);
+            this.batchLoadStatement = batchLoad == null ? null : resolveBatchLoadStatement(mapperInterface, batchLoad);
+            this.publisherIndex = getUniqueParamIndex(method, Publisher.class);
+            if (publisherIndex == null && multiRowInsert) {
+                this.elementsIndex = getUniqueParamIndex(method, Collection.class);
+                if (elementsIndex == null) {
+                    throw new BindingException(method.getName() + " annotated with @MultiRowInsert needs a Publisher or Collection parameter");
+                }
+            } else {
+                this.elementsIndex = publisherIndex;
+            }
+            BatchSize batchSizeAnnotation = method.getAnnotation(BatchSize.class);
+            this.batchSize = batchSizeAnnotation == null ? null : batchSizeAnnotation.value();
             this.paramNameResolver = new ParamNameResolver(configuration, method);
+            this.paramIndexes = ArgsParamMap.resolveIndexes(method, paramNameResolver);
         }
 
         public Object convertArgsToSqlCommandParam(Object[] args) {
-            return paramNameResolver.getNamedParams(args);
+            if (paramIndexes == null || args == null) {
+                return paramNameResolver.getNamedParams(args);
+            }
+            return new ArgsParamMap(paramIndexes, args);
+        }
+
+        /**
+         * Publisher（或 @MultiRowInsert 的集合）参数的每个元素替换到原参数位置后，再按普通参数解析
+         */
+        public Flux<Object> convertElementsToSqlCommandParams(Object[] args) {
+            Object elements = args[elementsIndex];
+            Flux<?> flux = elements instanceof Publisher ? Flux.from((Publisher<?>) elements) : Flux.fromIterable((Collection<?>) elements);
+            return flux.map(element -> {
+                Object[] elementArgs = args.clone();
+                elementArgs[elementsIndex] = element;
+                return convertArgsToSqlCommandParam(elementArgs);
+            });
+        }
+
+        public boolean hasPublisher() {
+            return publisherIndex != null;
+        }
+
+        public boolean hasBatchSize() {
+            return batchSize != null;
+        }
+
+        public Integer getBatchSize() {
+            return batchSize;
         }
 
         public boolean hasRowBounds() {
@@ -258,6 +397,35 @@ public class MapperMethod {
             return returnsVoid;
         }
 
+        public boolean isExists() {
+            return exists;
+        }
+
+        public boolean isFindFirst() {
+            return findFirst;
+        }
+
+        public boolean isMultiRowInsert() {
+            return multiRowInsert;
+        }
+
+        public boolean isBatchLoad() {
+            return batchLoad != null;
+        }
+
+        public BatchLoad getBatchLoad() {
+            return batchLoad;
+        }
+
+        public String getBatchLoadStatement() {
+            return batchLoadStatement;
+        }
+
+        static String resolveBatchLoadStatement(Class<?> mapperInterface, BatchLoad batchLoad) {
+            String statement = batchLoad.statement();
+            return statement.indexOf('.') < 0 ? mapperInterface.getName() + "." + statement : statement;
+        }
+
         private Integer getUniqueParamIndex(Method method, Class<?> paramType) {
             Integer index = null;
             final Class<?>[] argTypes = method.getParameterTypes();
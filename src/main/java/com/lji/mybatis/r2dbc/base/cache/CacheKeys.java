@@ -0,0 +1,50 @@
+package com.lji.mybatis.r2dbc.base.cache;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 查询的 CacheKey，组成与 MyBatis BaseExecutor#createCacheKey 一致：statement id + RowBounds + SQL + 参数值 + environment
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    public static CacheKey create(Configuration configuration, MappedStatement mappedStatement, Object parameter,
+                                  RowBounds rowBounds, BoundSql boundSql) {
+        CacheKey cacheKey = new CacheKey();
+        cacheKey.update(mappedStatement.getId());
+        cacheKey.update(rowBounds.getOffset());
+        cacheKey.update(rowBounds.getLimit());
+        cacheKey.update(boundSql.getSql());
+        for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+            if (parameterMapping.getMode() != ParameterMode.OUT) {
+                Object value;
+                String propertyName = parameterMapping.getProperty();
+                if (boundSql.hasAdditionalParameter(propertyName)) {
+                    value = boundSql.getAdditionalParameter(propertyName);
+                } else if (parameter == null) {
+                    value = null;
+                } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+                    value = parameter;
+                } else {
+                    value = configuration.newMetaObject(parameter).getValue(propertyName);
+                }
+                cacheKey.update(value);
+            }
+        }
+        if (configuration.getEnvironment() != null) {
+            cacheKey.update(configuration.getEnvironment().getId());
+        }
+        return cacheKey;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lji.mybatis.r2dbc.base.cache;
+
+import org.apache.ibatis.cache.CacheKey;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 相同查询（CacheKey 相同）在执行期间到达的订阅共享同一次执行的结果，执行结束即移除，不做持久缓存
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class QueryCoalescer {
+
+    private final Map<CacheKey, InFlight> inFlights = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <T> Flux<T> coalesce(CacheKey cacheKey, Flux<T> source) {
+        return Flux.defer(() -> {
+            InFlight inFlight = new InFlight();
+            inFlight.rows = ((Flux<Object>) source)
+                    .doFinally(signal -> inFlights.remove(cacheKey, inFlight))
+                    .replay()
+                    .refCount();
+            InFlight existing = inFlights.putIfAbsent(cacheKey, inFlight);
+            if (existing != null) {
+                coalesced.increment();
+                return (Flux<T>) existing.rows;
+            }
+            executed.increment();
+            return (Flux<T>) inFlight.rows;
+        });
+    }
+
+    /**
+     * 实际执行的次数
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * 合并到已有执行上的次数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlights.size();
+    }
+
+    private static class InFlight {
+
+        private Flux<Object> rows;
+    }
+}
@@ -0,0 +1,96 @@
+package com.lji.mybatis.r2dbc.base.columnar;
+
+import java.util.BitSet;
+
+/**
+ * 按列存放的一批行：整数列为 int[] / long[]，浮点列为 double[]，其余列为 Object[]；
+ * 数组长度等于 {@link #size()}，数值列的 null 取 0，用 {@link #isNull(int, int)} 区分
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class ColumnBatch {
+
+    public enum Type {
+        INT, LONG, DOUBLE, OBJECT
+    }
+
+    private final String[] names;
+
+    private final Type[] types;
+
+    private final Object[] columns;
+
+    /**
+     * 每列的 null 行，没有 null 的列为 null
+     */
+    private final BitSet[] nulls;
+
+    private final int size;
+
+    ColumnBatch(String[] names, Type[] types, Object[] columns, BitSet[] nulls, int size) {
+        this.names = names;
+        this.types = types;
+        this.columns = columns;
+        this.nulls = nulls;
+        this.size = size;
+    }
+
+    /**
+     * @return 行数
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    /**
+     * @return 列名（忽略大小写）对应的下标，没有时为 -1
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public Type getType(int column) {
+        return types[column];
+    }
+
+    public int[] getInts(int column) {
+        return (int[]) column(column, Type.INT);
+    }
+
+    public long[] getLongs(int column) {
+        return (long[]) column(column, Type.LONG);
+    }
+
+    public double[] getDoubles(int column) {
+        return (double[]) column(column, Type.DOUBLE);
+    }
+
+    public Object[] getObjects(int column) {
+        return (Object[]) column(column, Type.OBJECT);
+    }
+
+    public boolean isNull(int column, int row) {
+        return nulls[column] != null && nulls[column].get(row);
+    }
+
+    private Object column(int column, Type type) {
+        if (types[column] != type) {
+            throw new IllegalArgumentException("Column '" + names[column] + "' is " + types[column] + ", not " + type);
+        }
+        return columns[column];
+    }
+}
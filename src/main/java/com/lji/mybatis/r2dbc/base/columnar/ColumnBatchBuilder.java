@@ -0,0 +1,166 @@
+package com.lji.mybatis.r2dbc.base.columnar;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * 把行按列填进 {@link ColumnBatch}：列类型在第一行按 ColumnMetadata 的 javaType 确定
+ * （Integer/Short/Byte 为 int，Long 为 long，Double/Float 为 double，其余按对象），
+ * 每列按声明类型 Row.get(index, type) 读取后写入预分配的数组，攒够 batchSize 行输出一批。
+ * 一次查询一个实例；发到所有分片的查询会并发调用，所以方法是同步的
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class ColumnBatchBuilder {
+
+    /**
+     * 这一行已写入但还没攒够一批，Result.map 不接受 null，用它占位
+     */
+    public static final Object PENDING = new Object();
+
+    private final int batchSize;
+
+    private String[] names;
+
+    private ColumnBatch.Type[] types;
+
+    /**
+     * 每列读取时传给 Row.get 的类型
+     */
+    private Class<?>[] readTypes;
+
+    private Object[] columns;
+
+    private BitSet[] nulls;
+
+    private int size;
+
+    public ColumnBatchBuilder(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return 攒够一批时为这一批，否则为 {@link #PENDING}
+     */
+    public synchronized Object add(Row row, RowMetadata rowMetadata) {
+        if (names == null) {
+            compile(rowMetadata);
+        }
+        if (columns == null) {
+            allocate();
+        }
+        for (int i = 0; i < types.length; i++) {
+            Object value = row.get(i, readTypes[i]);
+            if (value == null) {
+                if (nulls[i] == null) {
+                    nulls[i] = new BitSet(batchSize);
+                }
+                nulls[i].set(size);
+                continue;
+            }
+            switch (types[i]) {
+                case INT:
+                    ((int[]) columns[i])[size] = ((Number) value).intValue();
+                    break;
+                case LONG:
+                    ((long[]) columns[i])[size] = (Long) value;
+                    break;
+                case DOUBLE:
+                    ((double[]) columns[i])[size] = ((Number) value).doubleValue();
+                    break;
+                default:
+                    ((Object[]) columns[i])[size] = value;
+            }
+        }
+        return ++size == batchSize ? build() : PENDING;
+    }
+
+    /**
+     * @return 最后不足一批的行，数组截到实际行数；没有时为 null
+     */
+    public synchronized ColumnBatch finish() {
+        if (size == 0) {
+            return null;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            switch (types[i]) {
+                case INT:
+                    columns[i] = Arrays.copyOf((int[]) columns[i], size);
+                    break;
+                case LONG:
+                    columns[i] = Arrays.copyOf((long[]) columns[i], size);
+                    break;
+                case DOUBLE:
+                    columns[i] = Arrays.copyOf((double[]) columns[i], size);
+                    break;
+                default:
+                    columns[i] = Arrays.copyOf((Object[]) columns[i], size);
+            }
+        }
+        return build();
+    }
+
+    /**
+     * 输出这一批，下一行再分配新的数组
+     */
+    private ColumnBatch build() {
+        ColumnBatch batch = new ColumnBatch(names, types, columns, nulls, size);
+        columns = null;
+        nulls = null;
+        size = 0;
+        return batch;
+    }
+
+    private void compile(RowMetadata rowMetadata) {
+        // 有的驱动返回的列名集合 toArray(T[]) 不按参数的类型，逐个复制
+        Collection<String> labels = rowMetadata.getColumnNames();
+        String[] columnNames = new String[labels.size()];
+        int index = 0;
+        for (String name : labels) {
+            columnNames[index++] = name;
+        }
+        types = new ColumnBatch.Type[columnNames.length];
+        readTypes = new Class<?>[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            ColumnMetadata columnMetadata = rowMetadata.getColumnMetadata(i);
+            Class<?> javaType = columnMetadata.getJavaType();
+            if (javaType == Integer.class || javaType == Short.class || javaType == Byte.class) {
+                types[i] = ColumnBatch.Type.INT;
+            } else if (javaType == Long.class) {
+                types[i] = ColumnBatch.Type.LONG;
+            } else if (javaType == Double.class || javaType == Float.class) {
+                types[i] = ColumnBatch.Type.DOUBLE;
+            } else {
+                types[i] = ColumnBatch.Type.OBJECT;
+            }
+            readTypes[i] = types[i] == ColumnBatch.Type.OBJECT ? Object.class : javaType;
+        }
+        names = columnNames;
+    }
+
+    private void allocate() {
+        columns = new Object[types.length];
+        nulls = new BitSet[types.length];
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case INT:
+                    columns[i] = new int[batchSize];
+                    break;
+                case LONG:
+                    columns[i] = new long[batchSize];
+                    break;
+                case DOUBLE:
+                    columns[i] = new double[batchSize];
+                    break;
+                default:
+                    columns[i] = new Object[batchSize];
+            }
+        }
+    }
+}
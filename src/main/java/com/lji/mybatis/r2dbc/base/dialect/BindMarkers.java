@@ -0,0 +1,136 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+/**
+ * 参数占位符风格：MyBatis 生成的 ? 按出现顺序改写成驱动要求的占位符（如 PostgreSQL 的 $1、SQL Server 的 @P0），
+ * 字符串、带引号的标识符、注释和 PostgreSQL 的 $$ 字符串中的 ? 不改写
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class BindMarkers {
+
+    /**
+     * 原样使用 ?（MySQL/MariaDB、Oracle）
+     */
+    public static final BindMarkers QUESTION_MARK = new BindMarkers(null, 0);
+
+    /**
+     * $1, $2 ...（PostgreSQL、H2）
+     */
+    public static final BindMarkers DOLLAR_INDEXED = new BindMarkers("$", 1);
+
+    /**
+     * &#64;P0, &#64;P1 ...（SQL Server）
+     */
+    public static final BindMarkers AT_P_INDEXED = new BindMarkers("@P", 0);
+
+    private final String prefix;
+
+    private final int base;
+
+    private BindMarkers(String prefix, int base) {
+        this.prefix = prefix;
+        this.base = base;
+    }
+
+    public boolean isQuestionMark() {
+        return prefix == null;
+    }
+
+    /**
+     * @param index 从 0 开始的绑定下标
+     */
+    public void appendMarker(StringBuilder sql, int index) {
+        if (prefix == null) {
+            sql.append('?');
+        } else {
+            sql.append(prefix).append(base + index);
+        }
+    }
+
+    /**
+     * 改写 SQL 中的 ?，调用方负责缓存结果
+     */
+    public String translate(String sql) {
+        return translate(sql, 0);
+    }
+
+    /**
+     * @param firstIndex 第一个 ? 对应的绑定下标
+     */
+    public String translate(String sql, int firstIndex) {
+        if (prefix == null || sql.indexOf('?') < 0) {
+            return sql;
+        }
+        StringBuilder translated = new StringBuilder(sql.length() + 16);
+        int index = firstIndex;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int end;
+            if (c == '\'' || c == '"' || c == '`') {
+                end = skipQuoted(sql, i, c);
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                end = skipLineComment(sql, i);
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int close = sql.indexOf("*/", i + 2);
+                end = close < 0 ? length : close + 2;
+            } else if (c == '$') {
+                end = skipDollarQuoted(sql, i);
+            } else if (c == '?') {
+                appendMarker(translated, index++);
+                i++;
+                continue;
+            } else {
+                end = i + 1;
+            }
+            translated.append(sql, i, end);
+            i = end;
+        }
+        return translated.toString();
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        for (int i = start + 1; i < sql.length(); i++) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return sql.length();
+    }
+
+    private static int skipLineComment(String sql, int start) {
+        int end = sql.indexOf('\n', start);
+        return end < 0 ? sql.length() : end + 1;
+    }
+
+    /**
+     * $tag$ ... $tag$，不是合法的起始标记时只跳过一个字符
+     */
+    private static int skipDollarQuoted(String sql, int start) {
+        if (start > 0 && Character.isJavaIdentifierPart(sql.charAt(start - 1))) {
+            return start + 1;
+        }
+        int i = start + 1;
+        while (i < sql.length() && (Character.isLetter(sql.charAt(i)) || sql.charAt(i) == '_'
+                || i > start + 1 && Character.isDigit(sql.charAt(i)))) {
+            i++;
+        }
+        if (i >= sql.length() || sql.charAt(i) != '$') {
+            return start + 1;
+        }
+        String tag = sql.substring(start, i + 1);
+        int close = sql.indexOf(tag, i + 1);
+        return close < 0 ? sql.length() : close + tag.length();
+    }
+
+    @Override
+    public String toString() {
+        return prefix == null ? "?" : prefix + base;
+    }
+}
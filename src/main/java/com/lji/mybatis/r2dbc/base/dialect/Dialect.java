@@ -0,0 +1,96 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据库方言，负责把 RowBounds 改写成 SQL 分页（分页参数追加在原有参数之后），以及参数占位符的风格
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public abstract class Dialect {
+
+    private static final int MAX_CACHED_PAGE_SQL = 1024;
+
+    private final Map<PageSqlKey, String> pageSqlCache = new ConcurrentHashMap<>();
+
+    public abstract String getName();
+
+    /**
+     * 驱动要求的参数占位符，默认原样使用 ?
+     */
+    public BindMarkers getBindMarkers() {
+        return BindMarkers.QUESTION_MARK;
+    }
+
+    /**
+     * 分页 SQL，按 (statement id, 原 SQL, 是否有 offset) 缓存，占位符已改写
+     *
+     * @param sql 占位符为 ? 的原 SQL
+     */
+    public String getPageSql(String statementId, String sql, boolean hasOffset) {
+        PageSqlKey key = new PageSqlKey(statementId, sql, hasOffset);
+        String pageSql = pageSqlCache.get(key);
+        if (pageSql == null) {
+            if (pageSqlCache.size() >= MAX_CACHED_PAGE_SQL) {
+                pageSqlCache.clear();
+            }
+            pageSql = getBindMarkers().translate(buildPageSql(trimSql(sql), hasOffset));
+            pageSqlCache.put(key, pageSql);
+        }
+        return pageSql;
+    }
+
+    /**
+     * 绑定分页参数
+     *
+     * @param index 第一个分页参数的下标
+     */
+    public abstract void bindPage(Statement statement, int index, int offset, int limit);
+
+    protected abstract String buildPageSql(String sql, boolean hasOffset);
+
+    protected static String trimSql(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private static class PageSqlKey {
+
+        private final String statementId;
+
+        private final String sql;
+
+        private final boolean hasOffset;
+
+        PageSqlKey(String statementId, String sql, boolean hasOffset) {
+            this.statementId = statementId;
+            this.sql = sql;
+            this.hasOffset = hasOffset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PageSqlKey)) {
+                return false;
+            }
+            PageSqlKey that = (PageSqlKey) o;
+            return hasOffset == that.hasOffset && statementId.equals(that.statementId) && sql.equals(that.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statementId, sql, hasOffset);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+
+import java.util.Locale;
+
+/**
+ * 方言解析：优先使用 databaseId，其次根据 ConnectionFactoryMetadata 的名称
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class Dialects {
+
+    private Dialects() {
+    }
+
+    /**
+     * @return 无法识别时返回 null
+     */
+    public static Dialect resolve(String databaseId, ConnectionFactory connectionFactory) {
+        Dialect dialect = forName(databaseId);
+        Object current = connectionFactory;
+        while (dialect == null && current instanceof ConnectionFactory) {
+            ConnectionFactoryMetadata metadata = ((ConnectionFactory) current).getMetadata();
+            dialect = metadata == null ? null : forName(metadata.getName());
+            current = current instanceof Wrapped ? ((Wrapped<?>) current).unwrap() : null;
+        }
+        return dialect;
+    }
+
+    public static Dialect forName(String name) {
+        if (name == null) {
+            return null;
+        }
+        String lowerName = name.toLowerCase(Locale.ENGLISH);
+        if (lowerName.contains("mysql") || lowerName.contains("mariadb")) {
+            return new MySqlDialect();
+        } else if (lowerName.contains("postgres")) {
+            return new PostgreSqlDialect();
+        } else if (lowerName.equals("h2") || lowerName.startsWith("h2 ")) {
+            return new H2Dialect();
+        } else if (lowerName.contains("sql server") || lowerName.contains("sqlserver") || lowerName.contains("mssql")) {
+            return new SqlServerDialect();
+        } else if (lowerName.contains("oracle")) {
+            return new OracleDialect();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+/**
+ * H2，分页语法和占位符与 PostgreSQL 相同
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class H2Dialect extends PostgreSqlDialect {
+
+    @Override
+    public String getName() {
+        return "h2";
+    }
+}
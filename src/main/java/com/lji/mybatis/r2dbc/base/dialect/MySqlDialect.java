@@ -0,0 +1,30 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+
+/**
+ * MySQL / MariaDB: LIMIT offset, limit
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class MySqlDialect extends Dialect {
+
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    protected String buildPageSql(String sql, boolean hasOffset) {
+        return hasOffset ? sql + " LIMIT ?, ?" : sql + " LIMIT ?";
+    }
+
+    @Override
+    public void bindPage(Statement statement, int index, int offset, int limit) {
+        if (offset > 0) {
+            statement.bind(index++, offset);
+        }
+        statement.bind(index, limit);
+    }
+}
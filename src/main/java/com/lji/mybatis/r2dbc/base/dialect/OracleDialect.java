@@ -0,0 +1,30 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+
+/**
+ * Oracle 12c+: OFFSET n ROWS FETCH NEXT n ROWS ONLY
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class OracleDialect extends Dialect {
+
+    @Override
+    public String getName() {
+        return "oracle";
+    }
+
+    @Override
+    protected String buildPageSql(String sql, boolean hasOffset) {
+        return hasOffset ? sql + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY" : sql + " FETCH FIRST ? ROWS ONLY";
+    }
+
+    @Override
+    public void bindPage(Statement statement, int index, int offset, int limit) {
+        if (offset > 0) {
+            statement.bind(index++, offset);
+        }
+        statement.bind(index, limit);
+    }
+}
@@ -0,0 +1,35 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+
+/**
+ * PostgreSQL: LIMIT limit OFFSET offset，占位符 $1, $2 ...
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class PostgreSqlDialect extends Dialect {
+
+    @Override
+    public String getName() {
+        return "postgresql";
+    }
+
+    @Override
+    public BindMarkers getBindMarkers() {
+        return BindMarkers.DOLLAR_INDEXED;
+    }
+
+    @Override
+    protected String buildPageSql(String sql, boolean hasOffset) {
+        return hasOffset ? sql + " LIMIT ? OFFSET ?" : sql + " LIMIT ?";
+    }
+
+    @Override
+    public void bindPage(Statement statement, int index, int offset, int limit) {
+        statement.bind(index, limit);
+        if (offset > 0) {
+            statement.bind(index + 1, offset);
+        }
+    }
+}
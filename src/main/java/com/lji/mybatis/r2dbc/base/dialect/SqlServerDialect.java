@@ -0,0 +1,57 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+
+import java.util.Locale;
+
+/**
+ * SQL Server 2012+: OFFSET n ROWS FETCH NEXT n ROWS ONLY，必须有 ORDER BY，没有时补 ORDER BY (SELECT NULL)；占位符 &#64;P0, &#64;P1 ...
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class SqlServerDialect extends Dialect {
+
+    @Override
+    public String getName() {
+        return "sqlserver";
+    }
+
+    @Override
+    public BindMarkers getBindMarkers() {
+        return BindMarkers.AT_P_INDEXED;
+    }
+
+    @Override
+    protected String buildPageSql(String sql, boolean hasOffset) {
+        String orderBy = hasTopLevelOrderBy(sql) ? "" : " ORDER BY (SELECT NULL)";
+        return sql + orderBy + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public void bindPage(Statement statement, int index, int offset, int limit) {
+        statement.bind(index, offset);
+        statement.bind(index + 1, limit);
+    }
+
+    private static boolean hasTopLevelOrderBy(String sql) {
+        String upper = sql.toUpperCase(Locale.ENGLISH);
+        int depth = 0;
+        boolean quoted = false;
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && upper.startsWith("ORDER", i)
+                    && (i == 0 || Character.isWhitespace(upper.charAt(i - 1)))
+                    && upper.substring(i + 5).trim().startsWith("BY")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,367 @@
+package com.lji.mybatis.r2dbc.base.encoding;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * 把行直接编码成 JSON / NDJSON / CSV 字节，不映射成对象或 Map：列名在第一行按 RowMetadata 预先编码好，
+ * 每行的值按类型写入复用的字节数组，攒够 bufferSize 后一次拷贝进 bufferFactory 分配的 DataBuffer 输出。
+ * 一次查询一个实例，只能按顺序调用：输出的块依次拼接成完整的字节流，发到所有分片的查询要一个分片读完再读下一个
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class RowEncoder {
+
+    /**
+     * 这一行已写入但还没攒够一块，Result.map 不接受 null，用它占位
+     */
+    public static final Object PENDING = new Object();
+
+    private static final byte[] NULL = ascii("null");
+
+    private static final byte[] TRUE = ascii("true");
+
+    private static final byte[] FALSE = ascii("false");
+
+    private static final byte[] NO_PREFIX = new byte[0];
+
+    private static final byte[] COMMA = ascii(",");
+
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private final RowFormat format;
+
+    private final DataBufferFactory bufferFactory;
+
+    private final int bufferSize;
+
+    private byte[] buf;
+
+    private int length;
+
+    /**
+     * 每列的值之前写入的字节：JSON 为 {"列名": 或 ,"列名":，CSV 为分隔符；第一行到达时生成
+     */
+    private byte[][] prefixes;
+
+    public RowEncoder(RowFormat format, DataBufferFactory bufferFactory, int bufferSize) {
+        this.format = format;
+        this.bufferFactory = bufferFactory;
+        this.bufferSize = bufferSize;
+        this.buf = new byte[Math.min(bufferSize, 1 << 20) + 1024];
+    }
+
+    /**
+     * @return 攒够一块时为输出的 DataBuffer，否则为 {@link #PENDING}
+     */
+    public Object encode(Row row, RowMetadata rowMetadata) {
+        if (prefixes == null) {
+            prefixes = compile(rowMetadata);
+        } else if (format == RowFormat.JSON) {
+            write((byte) ',');
+        }
+        for (int i = 0; i < prefixes.length; i++) {
+            write(prefixes[i]);
+            writeValue(row.get(i));
+        }
+        if (format == RowFormat.CSV) {
+            write((byte) '\r');
+            write((byte) '\n');
+        } else {
+            write((byte) '}');
+            if (format == RowFormat.NDJSON) {
+                write((byte) '\n');
+            }
+        }
+        return length >= bufferSize ? flush() : PENDING;
+    }
+
+    /**
+     * 结果结束：JSON 补上数组结尾
+     *
+     * @return 剩下的字节，没有时为 null
+     */
+    public DataBuffer finish() {
+        if (format == RowFormat.JSON) {
+            if (prefixes == null) {
+                write((byte) '[');
+            }
+            write((byte) ']');
+        }
+        return length == 0 ? null : flush();
+    }
+
+    private DataBuffer flush() {
+        DataBuffer buffer = bufferFactory.allocateBuffer(length);
+        buffer.write(buf, 0, length);
+        length = 0;
+        return buffer;
+    }
+
+    /**
+     * CSV 在这里写表头，JSON 写数组开头
+     */
+    private byte[][] compile(RowMetadata rowMetadata) {
+        Collection<String> names = rowMetadata.getColumnNames();
+        byte[][] compiled = new byte[names.size()][];
+        int i = 0;
+        if (format == RowFormat.CSV) {
+            for (String name : names) {
+                if (i > 0) {
+                    write((byte) ',');
+                }
+                writeCsvString(name);
+                compiled[i] = i == 0 ? NO_PREFIX : COMMA;
+                i++;
+            }
+            write((byte) '\r');
+            write((byte) '\n');
+            return compiled;
+        }
+        if (format == RowFormat.JSON) {
+            write((byte) '[');
+        }
+        for (String name : names) {
+            int start = length;
+            write((byte) (i == 0 ? '{' : ','));
+            writeJsonString(name);
+            write((byte) ':');
+            compiled[i++] = Arrays.copyOfRange(buf, start, length);
+            length = start;
+        }
+        return compiled;
+    }
+
+    private void writeValue(Object value) {
+        if (value == null) {
+            if (format != RowFormat.CSV) {
+                write(NULL);
+            }
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            write((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof BigDecimal) {
+            writeAscii(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Double || value instanceof Float) {
+            // JSON 没有 NaN / Infinity
+            if (format == RowFormat.CSV || Double.isFinite(((Number) value).doubleValue())) {
+                writeAscii(value.toString());
+            } else {
+                write(NULL);
+            }
+        } else if (value instanceof BigInteger) {
+            writeAscii(value.toString());
+        } else if (value instanceof byte[]) {
+            writeBinary((byte[]) value);
+        } else if (value instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = ((ByteBuffer) value).duplicate();
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            writeBinary(bytes);
+        } else {
+            // 日期时间（ISO-8601）、UUID 等按 toString 输出为字符串
+            writeString(value.toString());
+        }
+    }
+
+    private void writeString(String value) {
+        if (format == RowFormat.CSV) {
+            writeCsvString(value);
+        } else {
+            writeJsonString(value);
+        }
+    }
+
+    /**
+     * 二进制按 Base64 输出为字符串
+     */
+    private void writeBinary(byte[] value) {
+        byte[] encoded = Base64.getEncoder().encode(value);
+        if (format == RowFormat.CSV) {
+            write(encoded);
+        } else {
+            ensure(encoded.length + 2);
+            buf[length++] = '"';
+            write(encoded);
+            buf[length++] = '"';
+        }
+    }
+
+    private void writeJsonString(String value) {
+        int n = value.length();
+        ensure(n * 6 + 2);
+        buf[length++] = '"';
+        for (int i = 0; i < n; ) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                i += writeNonAscii(value, i, c);
+                continue;
+            }
+            i++;
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                buf[length++] = (byte) c;
+                continue;
+            }
+            buf[length++] = '\\';
+            switch (c) {
+                case '"':
+                case '\\':
+                    buf[length++] = (byte) c;
+                    break;
+                case '\n':
+                    buf[length++] = 'n';
+                    break;
+                case '\r':
+                    buf[length++] = 'r';
+                    break;
+                case '\t':
+                    buf[length++] = 't';
+                    break;
+                case '\b':
+                    buf[length++] = 'b';
+                    break;
+                case '\f':
+                    buf[length++] = 'f';
+                    break;
+                default:
+                    buf[length++] = 'u';
+                    buf[length++] = '0';
+                    buf[length++] = '0';
+                    buf[length++] = HEX[c >> 4];
+                    buf[length++] = HEX[c & 0xF];
+            }
+        }
+        buf[length++] = '"';
+    }
+
+    /**
+     * 含逗号、引号或换行时加引号，引号写两次
+     */
+    private void writeCsvString(String value) {
+        int n = value.length();
+        boolean quoted = false;
+        for (int i = 0; i < n; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                quoted = true;
+                break;
+            }
+        }
+        ensure(n * 3 + 2);
+        if (quoted) {
+            buf[length++] = '"';
+        }
+        for (int i = 0; i < n; ) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                i += writeNonAscii(value, i, c);
+                continue;
+            }
+            i++;
+            if (c == '"') {
+                buf[length++] = '"';
+            }
+            buf[length++] = (byte) c;
+        }
+        if (quoted) {
+            buf[length++] = '"';
+        }
+    }
+
+    /**
+     * 按 UTF-8 写一个非 ASCII 字符，不成对的代理字符写成 ?
+     *
+     * @return 消耗的 char 个数
+     */
+    private int writeNonAscii(String value, int i, char c) {
+        if (c < 0x800) {
+            buf[length++] = (byte) (0xC0 | c >> 6);
+            buf[length++] = (byte) (0x80 | c & 0x3F);
+            return 1;
+        }
+        if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+            buf[length++] = (byte) (0xF0 | codePoint >> 18);
+            buf[length++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            buf[length++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            buf[length++] = (byte) (0x80 | codePoint & 0x3F);
+            return 2;
+        }
+        if (Character.isSurrogate(c)) {
+            buf[length++] = '?';
+            return 1;
+        }
+        buf[length++] = (byte) (0xE0 | c >> 12);
+        buf[length++] = (byte) (0x80 | c >> 6 & 0x3F);
+        buf[length++] = (byte) (0x80 | c & 0x3F);
+        return 1;
+    }
+
+    private void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensure(20);
+        if (value < 0) {
+            buf[length++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        int position = length + digits;
+        length = position;
+        do {
+            buf[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+    }
+
+    private void writeAscii(String value) {
+        int n = value.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            buf[length++] = (byte) value.charAt(i);
+        }
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void write(byte b) {
+        ensure(1);
+        buf[length++] = b;
+    }
+
+    /**
+     * 单行超过剩余空间时扩容，之后沿用扩容后的数组
+     */
+    private void ensure(int bytes) {
+        if (length + bytes > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + bytes));
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,25 @@
+package com.lji.mybatis.r2dbc.base.encoding;
+
+/**
+ * selectEncoded 的输出格式，键名 / 表头取驱动返回的列名（需要别的名字时在 SQL 里起别名）
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public enum RowFormat {
+
+    /**
+     * JSON 数组，每行一个对象，没有结果时为 []
+     */
+    JSON,
+
+    /**
+     * 每行一个 JSON 对象，以换行结尾
+     */
+    NDJSON,
+
+    /**
+     * RFC 4180 CSV，第一行为表头，行以 CRLF 结尾，null 输出为空；没有结果时没有输出
+     */
+    CSV
+}
@@ -0,0 +1,224 @@
+package com.lji.mybatis.r2dbc.base.execution;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 慢查询记录：耗时超过阈值（按语句 id、namespace 或默认值）的执行写入固定大小的环形缓冲区，满了覆盖最早的记录；
+ * 写入只有一次 getAndIncrement 和一次数组写，不加锁。可以按比例抽样普通查询作为对比基线。
+ * 参数名（最后一级属性名）包含脱敏规则中任一词（忽略大小写）的参数值记为 ******
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class SlowQueryLog implements StatementListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    public static final String REDACTED = "******";
+
+    private static final int MAX_VALUE_LENGTH = 256;
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final long defaultThresholdNanos;
+
+    private final Map<String, Long> thresholds = new HashMap<>();
+
+    /**
+     * 语句 id 到阈值的解析结果
+     */
+    private final Map<String, Long> resolvedThresholds = new ConcurrentHashMap<>();
+
+    private final double sampleRate;
+
+    private final List<String> redactedNames = new ArrayList<>();
+
+    private final AtomicReferenceArray<SlowQueryRecord> buffer;
+
+    private final int mask;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param defaultThreshold 默认阈值，null 表示只按 thresholds 判断
+     * @param thresholds       语句 id 或 namespace 到阈值的映射，语句 id 优先，其次是最长的 namespace 前缀
+     * @param sampleRate       普通查询的抽样比例，0 ~ 1
+     * @param redactedNames    需要脱敏的参数名
+     * @param capacity         缓冲区大小，向上取 2 的幂
+     */
+    public SlowQueryLog(Duration defaultThreshold, Map<String, Duration> thresholds, double sampleRate,
+                        Collection<String> redactedNames, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1: " + sampleRate);
+        }
+        this.defaultThresholdNanos = defaultThreshold == null ? NEVER : defaultThreshold.toNanos();
+        if (thresholds != null) {
+            thresholds.forEach((key, threshold) -> this.thresholds.put(key, threshold.toNanos()));
+        }
+        this.sampleRate = sampleRate;
+        if (redactedNames != null) {
+            for (String name : redactedNames) {
+                this.redactedNames.add(name.toLowerCase(Locale.ROOT));
+            }
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public void onFinish(StatementExecution execution) {
+        boolean slow = execution.getTotalNanos() >= getThresholdNanos(execution.getStatementId());
+        if (!slow && (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        SlowQueryRecord record = new SlowQueryRecord(sequence.getAndIncrement(), execution, readParameters(execution), !slow);
+        buffer.set((int) (record.getSequence() & mask), record);
+        if (slow && logger.isWarnEnabled()) {
+            logger.warn("Slow statement {}", record);
+        }
+    }
+
+    /**
+     * @return 缓冲区中的记录，从新到旧
+     */
+    public List<SlowQueryRecord> getRecords() {
+        List<SlowQueryRecord> records = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SlowQueryRecord record = buffer.get(i);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        records.sort(Comparator.comparingLong(SlowQueryRecord::getSequence).reversed());
+        return records;
+    }
+
+    /**
+     * @return 累计记录的条数（含已被覆盖的）
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    public int getCapacity() {
+        return buffer.length();
+    }
+
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+
+    long getThresholdNanos(String statementId) {
+        Long threshold = resolvedThresholds.get(statementId);
+        if (threshold == null) {
+            threshold = resolveThreshold(statementId);
+            resolvedThresholds.put(statementId, threshold);
+        }
+        return threshold;
+    }
+
+    private long resolveThreshold(String statementId) {
+        for (String key = statementId; ; ) {
+            Long threshold = thresholds.get(key);
+            if (threshold != null) {
+                return threshold;
+            }
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) {
+                return defaultThresholdNanos;
+            }
+            key = key.substring(0, dot);
+        }
+    }
+
+    private Map<String, String> readParameters(StatementExecution execution) {
+        Object parameter = execution.getParameter();
+        MappedStatement mappedStatement = execution.getMappedStatement();
+        if (parameter == null) {
+            return Collections.emptyMap();
+        }
+        try {
+            // 只在记录时重新生成 BoundSql，取值规则与 DefaultParameterHandler 一致
+            Configuration configuration = mappedStatement.getConfiguration();
+            BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+            boolean simple = configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass());
+            MetaObject metaObject = simple ? null : configuration.newMetaObject(parameter);
+            Map<String, String> parameters = new LinkedHashMap<>();
+            for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+                if (parameterMapping.getMode() == ParameterMode.OUT) {
+                    continue;
+                }
+                String property = parameterMapping.getProperty();
+                Object value;
+                if (boundSql.hasAdditionalParameter(property)) {
+                    value = boundSql.getAdditionalParameter(property);
+                } else if (simple) {
+                    value = parameter;
+                } else {
+                    value = metaObject.getValue(property);
+                }
+                parameters.put(property, isRedacted(property) ? REDACTED : render(value));
+            }
+            return parameters;
+        } catch (RuntimeException e) {
+            return Collections.singletonMap("parameter", "<unavailable: " + e.getMessage() + ">");
+        }
+    }
+
+    private boolean isRedacted(String property) {
+        if (redactedNames.isEmpty()) {
+            return false;
+        }
+        String name = property.substring(property.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        for (String redacted : redactedNames) {
+            if (name.contains(redacted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String render(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof byte[]) {
+            return "byte[" + ((byte[]) value).length + "]";
+        }
+        String text = String.valueOf(value);
+        return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+    }
+}
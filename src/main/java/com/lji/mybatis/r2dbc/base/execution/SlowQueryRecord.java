@@ -0,0 +1,146 @@
+package com.lji.mybatis.r2dbc.base.execution;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢查询（或抽样的普通查询）的一条记录，创建后不再修改；耗时单位为毫秒
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class SlowQueryRecord {
+
+    private final long sequence;
+
+    private final Instant timestamp;
+
+    private final String statementId;
+
+    private final String commandType;
+
+    private final String sql;
+
+    private final Map<String, String> parameters;
+
+    private final long rows;
+
+    private final String outcome;
+
+    private final String error;
+
+    private final boolean sampled;
+
+    private final double acquireMillis;
+
+    private final double bindMillis;
+
+    private final double executeMillis;
+
+    private final double mappingMillis;
+
+    private final double releaseMillis;
+
+    private final double totalMillis;
+
+    SlowQueryRecord(long sequence, StatementExecution execution, Map<String, String> parameters, boolean sampled) {
+        this.sequence = sequence;
+        this.timestamp = Instant.now();
+        this.statementId = execution.getStatementId();
+        this.commandType = execution.getCommandType().name();
+        this.sql = execution.getSql();
+        this.parameters = parameters;
+        this.rows = execution.getRows();
+        this.outcome = execution.getOutcome().name();
+        this.error = execution.getError() == null ? null : String.valueOf(execution.getError());
+        this.sampled = sampled;
+        this.acquireMillis = millis(execution.getAcquireNanos());
+        this.bindMillis = millis(execution.getBindNanos());
+        this.executeMillis = millis(execution.getExecuteNanos());
+        this.mappingMillis = millis(execution.getMappingNanos());
+        this.releaseMillis = millis(execution.getReleaseNanos());
+        this.totalMillis = millis(execution.getTotalNanos());
+    }
+
+    private static double millis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public String getCommandType() {
+        return commandType;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return 参数名到值（已脱敏、截断）的映射；批量执行时为空
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * @return 是否是按抽样率记录的普通查询（未超过阈值）
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public double getAcquireMillis() {
+        return acquireMillis;
+    }
+
+    public double getBindMillis() {
+        return bindMillis;
+    }
+
+    public double getExecuteMillis() {
+        return executeMillis;
+    }
+
+    public double getMappingMillis() {
+        return mappingMillis;
+    }
+
+    public double getReleaseMillis() {
+        return releaseMillis;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return statementId + " took " + totalMillis + "ms (acquire " + acquireMillis + "ms, execute " + executeMillis
+                + "ms, mapping " + mappingMillis + "ms), rows " + rows + ", outcome " + outcome
+                + ", sql: " + sql + ", parameters: " + parameters;
+    }
+}
@@ -0,0 +1,216 @@
+package com.lji.mybatis.r2dbc.base.execution;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import java.util.List;
+
+/**
+ * 一次语句执行（一次订阅）的分阶段耗时：获取连接、绑定参数、执行到第一行（或更新计数）、行映射、释放连接；
+ * 没有注册 {@link StatementListener} 时使用 {@link #DISABLED}，各方法直接返回，不取时间
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class StatementExecution {
+
+    public static final StatementExecution DISABLED = new StatementExecution(null, null, null);
+
+    public enum Outcome {
+        SUCCESS, ERROR, CANCELLED,
+        /**
+         * 超过语句超时时间，见 {@link StatementTimeoutException}
+         */
+        TIMEOUT
+    }
+
+    private final List<StatementListener> listeners;
+
+    private final MappedStatement mappedStatement;
+
+    private final Object parameter;
+
+    private final boolean enabled;
+
+    private final long startNanos;
+
+    private String sql;
+
+    private long acquiredNanos;
+
+    private long bindNanos;
+
+    private long executeStartNanos;
+
+    private long firstResultNanos;
+
+    private long mappingNanos;
+
+    private long rows;
+
+    private long releaseStartNanos;
+
+    private long finishNanos;
+
+    private Outcome outcome;
+
+    private Throwable error;
+
+    public StatementExecution(List<StatementListener> listeners, MappedStatement mappedStatement, Object parameter) {
+        this.listeners = listeners;
+        this.mappedStatement = mappedStatement;
+        this.parameter = parameter;
+        this.enabled = listeners != null;
+        this.startNanos = enabled ? System.nanoTime() : 0;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void acquired() {
+        if (enabled) {
+            acquiredNanos = System.nanoTime();
+        }
+    }
+
+    public long bindStart() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 批量执行时会多次绑定，耗时累加；SQL 记最后一条
+     */
+    public void bindEnd(long bindStart, String sql) {
+        if (enabled) {
+            bindNanos += System.nanoTime() - bindStart;
+            this.sql = sql;
+        }
+    }
+
+    public void executeStart() {
+        if (enabled && executeStartNanos == 0) {
+            executeStartNanos = System.nanoTime();
+        }
+    }
+
+    public long mapStart() {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        if (firstResultNanos == 0) {
+            firstResultNanos = now;
+        }
+        return now;
+    }
+
+    public void mapEnd(long mapStart) {
+        if (enabled) {
+            mappingNanos += System.nanoTime() - mapStart;
+            rows++;
+        }
+    }
+
+    public void rowsUpdated(long count) {
+        if (enabled) {
+            if (firstResultNanos == 0) {
+                firstResultNanos = System.nanoTime();
+            }
+            rows += count;
+        }
+    }
+
+    public void releaseStart(Outcome outcome, Throwable error) {
+        if (enabled) {
+            releaseStartNanos = System.nanoTime();
+            this.outcome = outcome;
+            this.error = error;
+        }
+    }
+
+    /**
+     * 获取连接失败，没有释放阶段
+     */
+    public void acquireFailed(Throwable error) {
+        if (enabled && outcome == null) {
+            releaseStart(Outcome.ERROR, error);
+            finish();
+        }
+    }
+
+    public void finish() {
+        if (!enabled || finishNanos != 0) {
+            return;
+        }
+        finishNanos = System.nanoTime();
+        for (StatementListener listener : listeners) {
+            listener.onFinish(this);
+        }
+    }
+
+    public String getStatementId() {
+        return mappedStatement.getId();
+    }
+
+    public SqlCommandType getCommandType() {
+        return mappedStatement.getSqlCommandType();
+    }
+
+    public MappedStatement getMappedStatement() {
+        return mappedStatement;
+    }
+
+    /**
+     * @return 发送的 SQL，获取连接失败时为 null
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    public Object getParameter() {
+        return parameter;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getAcquireNanos() {
+        return acquiredNanos == 0 ? 0 : acquiredNanos - startNanos;
+    }
+
+    public long getBindNanos() {
+        return bindNanos;
+    }
+
+    /**
+     * 开始执行到第一行（或第一个更新计数）；没有结果时到执行结束
+     */
+    public long getExecuteNanos() {
+        if (executeStartNanos == 0) {
+            return 0;
+        }
+        return (firstResultNanos != 0 ? firstResultNanos : releaseStartNanos) - executeStartNanos;
+    }
+
+    public long getMappingNanos() {
+        return mappingNanos;
+    }
+
+    public long getReleaseNanos() {
+        return acquiredNanos == 0 ? 0 : finishNanos - releaseStartNanos;
+    }
+
+    public long getTotalNanos() {
+        return finishNanos - startNanos;
+    }
+}
@@ -0,0 +1,13 @@
+package com.lji.mybatis.r2dbc.base.execution;
+
+/**
+ * 语句执行结束（连接释放之后）的回调，用于指标、慢查询记录等；回调在执行链路的线程上同步调用，不应阻塞
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface StatementListener {
+
+    void onFinish(StatementExecution execution);
+}
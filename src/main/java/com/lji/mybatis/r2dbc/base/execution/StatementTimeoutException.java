@@ -0,0 +1,34 @@
+package com.lji.mybatis.r2dbc.base.execution;
+
+import io.r2dbc.spi.R2dbcTimeoutException;
+
+import java.time.Duration;
+
+/**
+ * 语句在超时时间内没有返回第一个结果（行或更新计数），execute() 的订阅已取消
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StatementTimeoutException extends R2dbcTimeoutException {
+
+    private static final long serialVersionUID = 5126940782139307715L;
+
+    private final String statementId;
+
+    private final Duration timeout;
+
+    public StatementTimeoutException(String statementId, Duration timeout) {
+        super("Statement " + statementId + " timed out after " + timeout.toMillis() + "ms");
+        this.statementId = statementId;
+        this.timeout = timeout;
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
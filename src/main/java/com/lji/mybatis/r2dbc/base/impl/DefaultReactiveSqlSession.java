@@ -1,22 +1,61 @@
 package com.lji.mybatis.r2dbc.base.impl;
 
 import com.lji.mybatis.r2dbc.base.ReactiveSqlSession;
-import com.lji.mybatis.r2dbc.base.type.R2DBCTypeHandler;
-import com.lji.mybatis.r2dbc.base.type.RowWrapper;
-import com.lji.mybatis.r2dbc.base.type.UnMappedColumnHandler;
+import com.lji.mybatis.r2dbc.base.SelectOnePolicy;
+import com.lji.mybatis.r2dbc.base.cache.CacheKeys;
+import com.lji.mybatis.r2dbc.base.columnar.ColumnBatch;
+import com.lji.mybatis.r2dbc.base.columnar.ColumnBatchBuilder;
+import com.lji.mybatis.r2dbc.base.dialect.BindMarkers;
+import com.lji.mybatis.r2dbc.base.dialect.Dialect;
+import com.lji.mybatis.r2dbc.base.dialect.Dialects;
+import com.lji.mybatis.r2dbc.base.encoding.RowEncoder;
+import com.lji.mybatis.r2dbc.base.encoding.RowFormat;
+import com.lji.mybatis.r2dbc.base.execution.StatementExecution;
+import com.lji.mybatis.r2dbc.base.execution.StatementTimeoutException;
+import com.lji.mybatis.r2dbc.base.loader.KeyBatchLoader;
+import com.lji.mybatis.r2dbc.base.loader.NestedSelect;
+import com.lji.mybatis.r2dbc.base.loader.NestedSelectKeys;
+import com.lji.mybatis.r2dbc.base.mapping.CompiledRowMapper;
+import com.lji.mybatis.r2dbc.base.mapping.NestedResults;
+import com.lji.mybatis.r2dbc.base.routing.Replica;
+import com.lji.mybatis.r2dbc.base.routing.ReplicaRouter;
+import com.lji.mybatis.r2dbc.base.sharding.ShardRouter;
+import com.lji.mybatis.r2dbc.base.statement.BoundStatement;
+import com.lji.mybatis.r2dbc.base.statement.PropertyGetter;
+import com.lji.mybatis.r2dbc.base.statement.PropertyGetters;
+import com.lji.mybatis.r2dbc.base.statement.StatementPlan;
+import com.lji.mybatis.r2dbc.base.statement.StatementPlanCache;
 import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
 import io.r2dbc.spi.*;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.exceptions.TooManyResultsException;
 import org.apache.ibatis.mapping.*;
 import org.apache.ibatis.reflection.MetaObject;
-import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.reflection.ParamNameResolver;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.RowBounds;
-import org.apache.ibatis.type.TypeException;
-import org.apache.ibatis.type.TypeHandler;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.PooledDataBuffer;
+import org.springframework.r2dbc.connection.ConnectionFactoryUtils;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * reactive sql session default implementation
@@ -25,36 +64,54 @@ import java.util.*;
  */
 @SuppressWarnings("unchecked")
 public class DefaultReactiveSqlSession implements ReactiveSqlSession {
-    private final List<Class<?>> NUMBER_TYPES = Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class,
-            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
     private final R2dbcConfiguration configuration;
-    private final ObjectFactory objectFactory;
     private final ConnectionFactory connectionFactory;
     private final boolean metricsEnabled;
+    private final Dialect dialect;
+    private final BindMarkers bindMarkers;
+    private volatile TransactionalOperator transactionalOperator;
+    private final Map<String, KeyBatchLoader> batchLoaders = new ConcurrentHashMap<>();
 
     public DefaultReactiveSqlSession(R2dbcConfiguration configuration, ConnectionFactory connectionFactory) {
         this.configuration = configuration;
-        this.objectFactory = this.configuration.getObjectFactory();
         //noinspection
         this.connectionFactory = connectionFactory;
         //metrics enabled
         this.metricsEnabled = Boolean.parseBoolean(configuration.getVariables().getProperty("metrics.enabled", "false"));
+        //sql dialect for pagination
+        this.dialect = Dialects.resolve(configuration.getDatabaseId(), connectionFactory);
+        //bind markers for drivers that don't accept ?
+        this.bindMarkers = dialect == null ? BindMarkers.QUESTION_MARK : dialect.getBindMarkers();
     }
 
     @Override
     public <T> Mono<T> selectOne(String statementId, Object parameter) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
-        Mono<T> rowSelected = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
-            if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
-            }
-            ResultMap resultMap = mappedStatement.getResultMaps().get(0);
-            return executeFluxStatement(connection, statement)
-                    .flatMap(result -> result.map((row, rowMetadata) -> (T) convertRowToResult(row, rowMetadata, resultMap)))
-                    .last();
-        });
+        Flux<T> rows = cachedQuery(mappedStatement, parameter, RowBounds.DEFAULT);
+        Mono<T> rowSelected;
+        if (configuration.getSelectOnePolicy() == SelectOnePolicy.FIRST) {
+            rowSelected = rows.take(1, true).next();
+        } else {
+            // 最多取两行，第二行到达后即取消，不再消费剩余结果
+            rowSelected = rows.take(2, true).collectList().flatMap(list -> {
+                if (list.size() > 1) {
+                    return Mono.error(new TooManyResultsException("Expected one result (or null) to be returned by selectOne(), but found more than one for " + statementId));
+                }
+                return Mono.justOrEmpty(list.isEmpty() ? null : list.get(0));
+            });
+        }
+        if (metricsEnabled) {
+            return rowSelected.name(statementId).metrics();
+        } else {
+            return rowSelected;
+        }
+    }
+
+    @Override
+    public <T> Mono<T> findFirst(String statementId, Object parameter) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        Mono<T> rowSelected = this.<T>cachedQuery(mappedStatement, parameter, RowBounds.DEFAULT)
+                .take(1, true).next();
         if (metricsEnabled) {
             return rowSelected.name(statementId).metrics();
         } else {
@@ -62,19 +119,28 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         }
     }
 
+    @Override
+    public Mono<Boolean> exists(String statementId, Object parameter) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        // 不做行映射，第一行到达即取消
+        Mono<Boolean> exists = query(mappedStatement, parameter, RowBounds.DEFAULT, () -> (row, rowMetadata) -> Boolean.TRUE)
+                .take(1, true).hasElements();
+        if (metricsEnabled) {
+            return exists.name(statementId).metrics();
+        } else {
+            return exists;
+        }
+    }
+
     @Override
     public <T> Flux<T> select(String statementId, Object parameter) {
+        return select(statementId, parameter, RowBounds.DEFAULT);
+    }
+
+    @Override
+    public <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
-        Flux<T> rowsSelected = getConnection().flatMapMany(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
-            if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
-            }
-            ResultMap resultMap = mappedStatement.getResultMaps().get(0);
-            return executeFluxStatement(connection, statement)
-                    .flatMap(result -> result.map((row, rowMetadata) -> (T) convertRowToResult(row, rowMetadata, resultMap)));
-        });
+        Flux<T> rowsSelected = cachedQuery(mappedStatement, parameter, rowBounds);
         if (metricsEnabled) {
             return rowsSelected.name(statementId).metrics();
         } else {
@@ -83,39 +149,127 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
     }
 
     @Override
-    public <T> Flux<T> select(String statementId, Object parameter, RowBounds rowBounds) {
-        return (Flux<T>) select(statementId, parameter).skip(rowBounds.getOffset()).limitRequest(rowBounds.getLimit());
+    public Flux<DataBuffer> selectEncoded(String statementId, Object parameter, RowFormat format, DataBufferFactory bufferFactory) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        // 取消或出错时释放已分配、还没被下游取走的块
+        Flux<DataBuffer> encoded = Flux.defer(() -> {
+            RowEncoder encoder = new RowEncoder(format, bufferFactory, configuration.getEncodedBufferSize());
+            // 块之间的顺序就是字节流的顺序，发到所有分片时依次读各分片，不并行合并
+            return query(mappedStatement, configuration.getStatementPlanCache().prepare(mappedStatement, parameter), RowBounds.DEFAULT,
+                    () -> encoder::encode, false, true)
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        if (buffer != RowEncoder.PENDING) {
+                            sink.next((DataBuffer) buffer);
+                        }
+                    })
+                    .concatWith(Mono.fromCallable(encoder::finish));
+        }).doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+        if (metricsEnabled) {
+            return encoded.name(statementId).metrics();
+        } else {
+            return encoded;
+        }
+    }
+
+    @Override
+    public <T> Flux<List<T>> selectChunked(String statementId, Object parameter) {
+        return selectChunked(statementId, parameter, configuration.getResultChunkSize());
+    }
+
+    @Override
+    public <T> Flux<List<T>> selectChunked(String statementId, Object parameter, int chunkSize) {
+        checkChunkSize(chunkSize);
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        Flux<List<T>> chunks = this.<T>cachedQuery(mappedStatement, parameter, RowBounds.DEFAULT)
+                .<List<T>>buffer(chunkSize, () -> new ArrayList<>(chunkSize));
+        if (metricsEnabled) {
+            return chunks.name(statementId).metrics();
+        } else {
+            return chunks;
+        }
+    }
+
+    @Override
+    public Flux<ColumnBatch> selectColumns(String statementId, Object parameter) {
+        return selectColumns(statementId, parameter, configuration.getResultChunkSize());
+    }
+
+    @Override
+    public Flux<ColumnBatch> selectColumns(String statementId, Object parameter, int batchSize) {
+        checkChunkSize(batchSize);
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        Flux<ColumnBatch> batches = Flux.defer(() -> {
+            ColumnBatchBuilder builder = new ColumnBatchBuilder(batchSize);
+            return query(mappedStatement, parameter, RowBounds.DEFAULT, () -> builder::add)
+                    .<ColumnBatch>handle((batch, sink) -> {
+                        if (batch != ColumnBatchBuilder.PENDING) {
+                            sink.next((ColumnBatch) batch);
+                        }
+                    })
+                    .concatWith(Mono.fromCallable(builder::finish));
+        });
+        if (metricsEnabled) {
+            return batches.name(statementId).metrics();
+        } else {
+            return batches;
+        }
+    }
+
+    private static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+    }
+
+    @Override
+    public <T> Mono<T> selectByKey(String statementId, String keyProperty, Object key) {
+        return selectByKey(statementId, keyProperty, key, configuration.getBatchLoadWindow(), configuration.getBatchLoadMaxSize());
+    }
+
+    @Override
+    public <T> Mono<T> selectByKey(String statementId, String keyProperty, Object key, Duration window, int maxBatchSize) {
+        String loaderId = statementId + '#' + keyProperty + '#' + window.toMillis() + '#' + maxBatchSize;
+        KeyBatchLoader batchLoader = batchLoaders.computeIfAbsent(loaderId, id -> {
+            Class<?> resultType = configuration.getMappedStatement(statementId).getResultMaps().get(0).getType();
+            PropertyGetter keyGetter = PropertyGetters.forProperty(configuration, resultType, keyProperty);
+            return new KeyBatchLoader(keys -> select(statementId, ParamNameResolver.wrapToMapIfCollection(keys, null)),
+                    keyGetter::get, window, maxBatchSize);
+        });
+        // 合并的查询不带调用方的 Context，事务中直接在事务连接上查询，才能读到事务内未提交的数据
+        return isTransactionActive().flatMap(transactional -> transactional
+                ? this.<T>select(statementId, ParamNameResolver.wrapToMapIfCollection(Collections.singletonList(key), null)).next()
+                : batchLoader.load(key));
     }
 
     @Override
     public Mono<Integer> insert(String statementId, Object parameter) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
-        Mono<Integer> rowsUpdated = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
+        BoundStatement boundStatement = configuration.getStatementPlanCache().prepare(mappedStatement, parameter);
+        Mono<Integer> rowsUpdated = routeUpdate(mappedStatement, parameter, shard -> withConnection(mappedStatement, parameter, shard, (connection, execution) -> {
+            long bindStart = execution.bindStart();
+            String sql = boundStatement.getSql(bindMarkers);
+            Statement statement = connection.createStatement(sql);
             final boolean useGeneratedKeys = mappedStatement.getKeyGenerator() != null && mappedStatement.getKeyProperties() != null;
             if (useGeneratedKeys) {
                 statement.returnGeneratedValues(mappedStatement.getKeyProperties());
             }
-            if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
-            }
-            return executeMonoStatement(connection, statement)
+            boundStatement.bind(statement);
+            execution.bindEnd(bindStart, sql);
+            execution.executeStart();
+            return timeout(mappedStatement, Mono.from(statement.execute())
                     .flatMap(result -> {
                         if (!useGeneratedKeys) {
                             return Mono.from(result.getRowsUpdated());
                         } else {
                             return Mono.from(result.map((row, rowMetadata) -> {
-                                MetaObject parameterMetaObject = configuration.newMetaObject(parameter);
-                                for (String keyProperty : mappedStatement.getKeyProperties()) {
-                                    Object value = row.get(keyProperty, parameterMetaObject.getSetterType(keyProperty));
-                                    parameterMetaObject.setValue(keyProperty, value);
-                                }
+                                assignKeys(mappedStatement, row, parameter);
                                 return 1;
                             }));
                         }
-                    });
-        });
+                    }))
+                    .doOnNext(execution::rowsUpdated);
+        }));
+        rowsUpdated = flushCache(mappedStatement, rowsUpdated);
         if (metricsEnabled) {
             return rowsUpdated.name(statementId).metrics();
         } else {
@@ -131,15 +285,19 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
     @Override
     public Mono<Integer> update(String statementId, Object parameter) {
         MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
-        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
-        Mono<Integer> updatedRows = getConnection().flatMap(connection -> {
-            Statement statement = connection.createStatement(boundSql.getSql());
-            if (parameter != null) {
-                fillParams(statement, boundSql, parameter);
-            }
-            return executeMonoStatement(connection, statement)
-                    .flatMap(result -> Mono.from(result.getRowsUpdated()));
-        });
+        BoundStatement boundStatement = configuration.getStatementPlanCache().prepare(mappedStatement, parameter);
+        Mono<Integer> updatedRows = routeUpdate(mappedStatement, parameter, shard -> withConnection(mappedStatement, parameter, shard, (connection, execution) -> {
+            long bindStart = execution.bindStart();
+            String sql = boundStatement.getSql(bindMarkers);
+            Statement statement = connection.createStatement(sql);
+            boundStatement.bind(statement);
+            execution.bindEnd(bindStart, sql);
+            execution.executeStart();
+            return timeout(mappedStatement, Mono.from(statement.execute())
+                    .flatMap(result -> Mono.from(result.getRowsUpdated())))
+                    .doOnNext(execution::rowsUpdated);
+        }));
+        updatedRows = flushCache(mappedStatement, updatedRows);
         if (metricsEnabled) {
             return updatedRows.name(statementId).metrics();
         } else {
@@ -147,6 +305,46 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         }
     }
 
+    @Override
+    public Flux<Integer> insertBatch(String statementId, Publisher<?> parameters) {
+        return batch(statementId, parameters, configuration.getBatchSize());
+    }
+
+    @Override
+    public Flux<Integer> insertBatch(String statementId, Publisher<?> parameters, int batchSize) {
+        return batch(statementId, parameters, batchSize);
+    }
+
+    @Override
+    public Flux<Integer> updateBatch(String statementId, Publisher<?> parameters) {
+        return batch(statementId, parameters, configuration.getBatchSize());
+    }
+
+    @Override
+    public Flux<Integer> updateBatch(String statementId, Publisher<?> parameters, int batchSize) {
+        return batch(statementId, parameters, batchSize);
+    }
+
+    @Override
+    public Flux<Integer> deleteBatch(String statementId, Publisher<?> parameters) {
+        return batch(statementId, parameters, configuration.getBatchSize());
+    }
+
+    @Override
+    public Flux<Integer> deleteBatch(String statementId, Publisher<?> parameters, int batchSize) {
+        return batch(statementId, parameters, batchSize);
+    }
+
+    @Override
+    public Mono<Long> insertMultiRow(String statementId, Publisher<?> parameters) {
+        return multiRow(statementId, parameters);
+    }
+
+    @Override
+    public <T> Flux<T> inTransaction(Function<ReactiveSqlSession, ? extends Publisher<T>> callback) {
+        return getTransactionalOperator().execute(status -> callback.apply(this));
+    }
+
     @Override
     public <T> T getMapper(Class<T> clazz) {
         return configuration.getMapper(clazz, this);
@@ -157,135 +355,749 @@ public class DefaultReactiveSqlSession implements ReactiveSqlSession {
         return this.configuration;
     }
 
-    public void fillParams(Statement statement, BoundSql boundSql, Object parameter) {
-        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
-        if (parameterMappings != null) {
-            for (int i = 0; i < parameterMappings.size(); i++) {
-                ParameterMapping parameterMapping = parameterMappings.get(i);
-                if (parameterMapping.getMode() != ParameterMode.OUT) {
-                    Object value;
-                    String propertyName = parameterMapping.getProperty();
-                    if (boundSql.hasAdditionalParameter(propertyName)) {
-                        value = boundSql.getAdditionalParameter(propertyName);
-                    } else if (parameter == null) {
-                        value = null;
-                    } else if (configuration.getR2dbcTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
-                        value = parameter;
-                    } else {
-                        MetaObject metaObject = configuration.newMetaObject(parameter);
-                        value = metaObject.getValue(propertyName);
-                    }
-                    if (value == null) {
-                        statement.bindNull(i, parameterMapping.getJavaType());
-                        return;
-                    }
-                    TypeHandler<?> typeHandler = parameterMapping.getTypeHandler();
-                    try {
-                        Class<?> parameterClass = value.getClass();
-                        if (typeHandler instanceof R2DBCTypeHandler) {
-                            ((R2DBCTypeHandler<Object>) typeHandler).setParameter(statement, i, value, parameterMapping.getJdbcType());
-                        } else if (configuration.getR2dbcTypeHandlerRegistry().hasTypeHandler(parameterClass)) {
-                            configuration.getR2dbcTypeHandlerRegistry().getTypeHandler(parameterClass).setParameter(statement, i, value, parameterMapping.getJdbcType());
-                        } else {
-                            statement.bind(i, value);
-                        }
-                    } catch (TypeException e) {
-                        throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
-                    }
-                }
-            }
+    private Flux<Integer> batch(String statementId, Publisher<?> parameters, int batchSize) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        // prefetch 为 1：上一块执行完之前只多拉取一块，参数流不会被整体读入内存
+        Flux<Integer> updatedRows = routeBatch(mappedStatement, parameters, (shard, shardParameters) ->
+                inConnection(mappedStatement, null, shard, (connection, execution) -> Flux.from(shardParameters)
+                        .buffer(batchSize)
+                        .concatMap(chunk -> executeBatch(connection, execution, mappedStatement, chunk), 1)));
+        updatedRows = flushCache(mappedStatement, updatedRows);
+        if (metricsEnabled) {
+            return updatedRows.name(statementId).metrics();
+        } else {
+            return updatedRows;
         }
     }
 
-    public Object convertRowToResult(Row row, RowMetadata rowMetadata, ResultMap resultMap) {
-        //number
-        Class<?> type = resultMap.getType();
-        if (NUMBER_TYPES.contains(type)) {
-            Number columnValue = (Number) row.get(0);
-            if (columnValue == null) {
-                return null;
+    /**
+     * 连续渲染出相同 SQL 的参数用 Statement.add() 绑定到同一条语句；不带参数的 SQL 合并到 Connection.createBatch()
+     */
+    private Flux<Integer> executeBatch(Connection connection, StatementExecution execution, MappedStatement mappedStatement,
+                                       List<?> parameters) {
+        final boolean useGeneratedKeys = mappedStatement.getKeyGenerator() != null && mappedStatement.getKeyProperties() != null;
+        List<BoundStatement> boundStatements = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            boundStatements.add(configuration.getStatementPlanCache().prepare(mappedStatement, parameter));
+        }
+        List<Flux<Integer>> executions = new ArrayList<>();
+        Batch batch = null;
+        int start = 0;
+        while (start < boundStatements.size()) {
+            String sql = boundStatements.get(start).getSql();
+            int end = start + 1;
+            while (end < boundStatements.size() && boundStatements.get(end).getSql().equals(sql)) {
+                end++;
             }
-            if (type.equals(columnValue.getClass())) {
-                return columnValue;
-            } else if (type.equals(Byte.class) || type.equals(byte.class)) {
-                return columnValue.byteValue();
-            } else if (type.equals(Short.class) || type.equals(short.class)) {
-                return columnValue.shortValue();
-            } else if (type.equals(Integer.class) || type.equals(int.class)) {
-                return columnValue.intValue();
-            } else if (type.equals(Long.class) || type.equals(long.class)) {
-                return columnValue.longValue();
-            } else if (type.equals(Float.class) || type.equals(float.class)) {
-                return columnValue.floatValue();
-            } else if (type.equals(Double.class) || type.equals(double.class)) {
-                return columnValue.doubleValue();
+            if (boundStatements.get(start).getParameterCount() == 0 && !useGeneratedKeys) {
+                if (batch == null) {
+                    batch = connection.createBatch();
+                }
+                long bindStart = execution.bindStart();
+                for (int i = start; i < end; i++) {
+                    batch.add(sql);
+                }
+                execution.bindEnd(bindStart, sql);
             } else {
-                return columnValue;
+                if (batch != null) {
+                    executions.add(executeBatch(batch, execution, mappedStatement));
+                    batch = null;
+                }
+                executions.add(executeBound(connection, execution, mappedStatement, boundStatements.get(start).getSql(bindMarkers),
+                        boundStatements.subList(start, end), parameters.subList(start, end), useGeneratedKeys));
             }
-        } else if (configuration.getR2dbcTypeHandlerRegistry().hasTypeHandler(type)) {
-            R2DBCTypeHandler<?> mappingTypeHandler = configuration.getR2dbcTypeHandlerRegistry().getTypeHandler(type);
-            return mappingTypeHandler.getResult(row, 0, rowMetadata);
-        } else if (type.isAssignableFrom(Map.class)) {
-            Map<String, Object> result = new HashMap<>();
-            for (String columnName : rowMetadata.getColumnNames()) {
-                result.put(columnName, row.get(columnName));
+            start = end;
+        }
+        if (batch != null) {
+            executions.add(executeBatch(batch, execution, mappedStatement));
+        }
+        return Flux.concat(executions);
+    }
+
+    private Flux<Integer> executeBatch(Batch batch, StatementExecution execution, MappedStatement mappedStatement) {
+        return Flux.defer(() -> {
+            execution.executeStart();
+            return timeout(mappedStatement, Flux.from(batch.execute()).concatMap(Result::getRowsUpdated)).doOnNext(execution::rowsUpdated);
+        });
+    }
+
+    private Flux<Integer> executeBound(Connection connection, StatementExecution execution, MappedStatement mappedStatement, String sql,
+                                       List<BoundStatement> boundStatements, List<?> parameters, boolean useGeneratedKeys) {
+        long bindStart = execution.bindStart();
+        Statement statement = connection.createStatement(sql);
+        if (useGeneratedKeys) {
+            statement.returnGeneratedValues(mappedStatement.getKeyProperties());
+        }
+        for (int i = 0; i < boundStatements.size(); i++) {
+            if (i > 0) {
+                statement.add();
             }
-            return result;
-        } else if (type.isAssignableFrom(Collection.class)) {
-            List<Object> result = new ArrayList<>();
-            for (String columnName : rowMetadata.getColumnNames()) {
-                result.add(row.get(columnName));
+            boundStatements.get(i).bind(statement);
+        }
+        execution.bindEnd(bindStart, sql);
+        return executeUpdate(statement, execution, mappedStatement, parameters, useGeneratedKeys);
+    }
+
+    private Flux<Integer> executeUpdate(Statement statement, StatementExecution execution, MappedStatement mappedStatement,
+                                        List<?> parameters, boolean useGeneratedKeys) {
+        return Flux.defer(() -> {
+            execution.executeStart();
+            if (!useGeneratedKeys) {
+                return timeout(mappedStatement, Flux.from(statement.execute()).concatMap(Result::getRowsUpdated));
             }
-            return result;
+            // 生成的主键按返回顺序依次回填到参数上
+            int[] next = new int[1];
+            return timeout(mappedStatement, Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, rowMetadata) -> {
+                        if (next[0] < parameters.size()) {
+                            assignKeys(mappedStatement, row, parameters.get(next[0]++));
+                        }
+                        return 1;
+                    })));
+        }).doOnNext(execution::rowsUpdated);
+    }
+
+    private Mono<Long> multiRow(String statementId, Publisher<?> parameters) {
+        MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+        final boolean useGeneratedKeys = mappedStatement.getKeyGenerator() != null && mappedStatement.getKeyProperties() != null;
+        Mono<Long> insertedRows = routeBatch(mappedStatement, parameters, (shard, shardParameters) ->
+                inConnection(mappedStatement, null, shard, (connection, execution) -> Flux.defer(() -> {
+                    MultiRowPacker packer = new MultiRowPacker(configuration.getMultiRowMaxParameters(), configuration.getMultiRowMaxBytes());
+                    return Flux.from(shardParameters)
+                            .map(parameter -> new MultiRowParameter(configuration.getStatementPlanCache().prepare(mappedStatement, parameter)))
+                            .bufferUntil(packer::startsNewStatement, true)
+                            .concatMap(rows -> executeMultiRow(connection, execution, mappedStatement, rows, useGeneratedKeys), 1);
+                }))).reduce(0L, (sum, rows) -> sum + rows);
+        insertedRows = flushCache(mappedStatement, insertedRows);
+        if (metricsEnabled) {
+            return insertedRows.name(statementId).metrics();
         } else {
-            Object object = objectFactory.create(type);
-            MetaObject resultMetaObject = configuration.newMetaObject(object);
-            List<ResultMapping> resultMappings = resultMap.getResultMappings();
-            if (!resultMappings.isEmpty()) {
-                for (ResultMapping resultMapping : resultMappings) {
-                    Class<?> javaType = resultMapping.getJavaType();
-                    Object columnValue;
-                    TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
-                    if (typeHandler instanceof R2DBCTypeHandler) {
-                        columnValue = ((R2DBCTypeHandler<?>) typeHandler).getResult(row, resultMapping.getColumn(), rowMetadata);
-                    } else if (configuration.getR2dbcTypeHandlerRegistry().hasTypeHandler(javaType)) {
-                        columnValue = configuration.getR2dbcTypeHandlerRegistry().getTypeHandler(javaType).getResult(row, resultMapping.getColumn(), rowMetadata);
-                    } else {
-                        columnValue = row.get(resultMapping.getColumn(), javaType);
+            return insertedRows;
+        }
+    }
+
+    private Flux<Integer> executeMultiRow(Connection connection, StatementExecution execution, MappedStatement mappedStatement,
+                                          List<MultiRowParameter> rows, boolean useGeneratedKeys) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        MultiRowInsertSql insertSql = rows.get(0).insertSql;
+        List<Object> parameters = new ArrayList<>(rows.size());
+        for (MultiRowParameter row : rows) {
+            parameters.add(row.boundStatement.getParameter());
+        }
+        if (insertSql == null || useGeneratedKeys) {
+            // 多行 VALUES 时 MySQL 只返回第一行的主键（LAST_INSERT_ID），要回填主键的语句按单行 SQL 逐行绑定，每行各返回自己的主键
+            List<BoundStatement> boundStatements = new ArrayList<>(rows.size());
+            for (MultiRowParameter row : rows) {
+                boundStatements.add(row.boundStatement);
+            }
+            return executeBound(connection, execution, mappedStatement, boundStatements.get(0).getSql(bindMarkers),
+                    boundStatements, parameters, useGeneratedKeys);
+        }
+        long bindStart = execution.bindStart();
+        String sql = insertSql.build(rows.size(), bindMarkers);
+        Statement statement = connection.createStatement(sql);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).boundStatement.bind(statement, i * insertSql.getRowParameters());
+        }
+        execution.bindEnd(bindStart, sql);
+        return executeUpdate(statement, execution, mappedStatement, parameters, false);
+    }
+
+    /**
+     * 语句超时（语句的 timeout，没有时取 defaultStatementTimeout，单位秒）：从订阅 execute() 到收到第一个结果（行或更新计数）
+     * 超时时取消 execute() 的订阅（驱动据此发送取消请求），以 {@link StatementTimeoutException} 结束，连接随即释放；
+     * 已经开始返回的行不再计时，下游消费慢不会触发超时
+     */
+    private <T> Flux<T> timeout(MappedStatement mappedStatement, Flux<T> executed) {
+        Duration timeout = statementTimeout(mappedStatement);
+        if (timeout == null) {
+            return executed;
+        }
+        return executed.timeout(Mono.delay(timeout), item -> Mono.never(),
+                Flux.defer(() -> Flux.error(new StatementTimeoutException(mappedStatement.getId(), timeout))));
+    }
+
+    private <T> Mono<T> timeout(MappedStatement mappedStatement, Mono<T> executed) {
+        Duration timeout = statementTimeout(mappedStatement);
+        if (timeout == null) {
+            return executed;
+        }
+        return executed.timeout(timeout, Mono.defer(() -> Mono.error(new StatementTimeoutException(mappedStatement.getId(), timeout))));
+    }
+
+    private Duration statementTimeout(MappedStatement mappedStatement) {
+        Integer seconds = mappedStatement.getTimeout() != null ? mappedStatement.getTimeout() : configuration.getDefaultStatementTimeout();
+        return seconds == null || seconds <= 0 ? null : Duration.ofSeconds(seconds);
+    }
+
+    private void assignKeys(MappedStatement mappedStatement, Row row, Object parameter) {
+        MetaObject parameterMetaObject = configuration.newMetaObject(parameter);
+        for (String keyProperty : mappedStatement.getKeyProperties()) {
+            Object value = row.get(keyProperty, parameterMetaObject.getSetterType(keyProperty));
+            parameterMetaObject.setValue(keyProperty, value);
+        }
+    }
+
+    private TransactionalOperator getTransactionalOperator() {
+        if (transactionalOperator == null) {
+            transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        }
+        return transactionalOperator;
+    }
+
+    /**
+     * 分片语句按分片键路由；取不到分片键的 update/delete 发到所有分片，返回更新行数之和，insert 必须带分片键
+     */
+    private Mono<Integer> routeUpdate(MappedStatement mappedStatement, Object parameter, IntFunction<Mono<Integer>> update) {
+        ShardRouter shardRouter = configuration.getShardRouter();
+        int shard = shardRouter == null ? ShardRouter.NO_SHARD : shardRouter.resolveShard(mappedStatement, parameter);
+        if (shard == ShardRouter.NO_SHARD) {
+            return update.apply(ShardRouter.NO_SHARD);
+        }
+        if (shard != ShardRouter.ALL_SHARDS) {
+            return shardRouter.limit(shard, update.apply(shard));
+        }
+        if (mappedStatement.getSqlCommandType() == SqlCommandType.INSERT) {
+            return Mono.error(new IllegalArgumentException("Shard key is required for sharded insert " + mappedStatement.getId()));
+        }
+        return Flux.range(0, shardRouter.getShardCount())
+                .flatMap(i -> shardRouter.limit(i, update.apply(i)), shardRouter.getShardCount())
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * 分片语句的批量参数按分片分组，每个分片在自己的连接上执行；各分片的结果按完成顺序交错返回
+     */
+    private <T> Flux<T> routeBatch(MappedStatement mappedStatement, Publisher<?> parameters,
+                                   BiFunction<Integer, Publisher<?>, Flux<T>> batch) {
+        ShardRouter shardRouter = configuration.getShardRouter();
+        if (shardRouter == null || !shardRouter.isSharded(mappedStatement.getId())) {
+            return batch.apply(ShardRouter.NO_SHARD, parameters);
+        }
+        return Flux.from(parameters)
+                .groupBy(parameter -> {
+                    int shard = shardRouter.resolveShard(mappedStatement, parameter);
+                    if (shard < 0) {
+                        throw new IllegalArgumentException("Shard key is required for sharded batch " + mappedStatement.getId());
                     }
-                    resultMetaObject.setValue(resultMapping.getProperty(), columnValue);
+                    return shard;
+                })
+                .flatMap(group -> shardRouter.limit(group.key(), batch.apply(group.key(), group)), shardRouter.getShardCount());
+    }
+
+    /**
+     * 按 BoundSql 临时编译计划绑定参数，不走计划缓存；语句执行走的是 {@link StatementPlanCache}
+     */
+    public void fillParams(Statement statement, BoundSql boundSql, Object parameter) {
+        StatementPlan.compile(configuration, boundSql, false).bind(statement, parameter, boundSql, 0);
+    }
+
+    /**
+     * 不按 ResultMap 映射的查询（exists、selectEncoded、selectColumns）：不合并嵌套结果，发到所有分片时也不需要按合并排序归并
+     */
+    private <T> Flux<T> query(MappedStatement mappedStatement, Object parameter, RowBounds rowBounds,
+                              Supplier<BiFunction<Row, RowMetadata, T>> rowMapperSupplier) {
+        return query(mappedStatement, configuration.getStatementPlanCache().prepare(mappedStatement, parameter), rowBounds,
+                rowMapperSupplier, false, false);
+    }
+
+    private <T> Flux<T> query(MappedStatement mappedStatement, BoundStatement boundStatement, RowBounds rowBounds,
+                              Supplier<BiFunction<Row, RowMetadata, T>> rowMapperSupplier) {
+        return query(mappedStatement, boundStatement, rowBounds, rowMapperSupplier, true, false);
+    }
+
+    /**
+     * @param sequentialShards 发到所有分片时是否按分片顺序依次执行（结果与分片一一对应、不能交错时使用）
+     */
+    private <T> Flux<T> query(MappedStatement mappedStatement, BoundStatement boundStatement, RowBounds rowBounds,
+                              Supplier<BiFunction<Row, RowMetadata, T>> rowMapperSupplier, boolean mapResults,
+                              boolean sequentialShards) {
+        ShardRouter shardRouter = configuration.getShardRouter();
+        if (shardRouter == null) {
+            return queryShard(mappedStatement, boundStatement, rowBounds, rowMapperSupplier, mapResults, ShardRouter.NO_SHARD);
+        }
+        int shard = shardRouter.resolveShard(mappedStatement, boundStatement.getParameter());
+        if (shard == ShardRouter.NO_SHARD) {
+            return queryShard(mappedStatement, boundStatement, rowBounds, rowMapperSupplier, mapResults, ShardRouter.NO_SHARD);
+        }
+        if (shard != ShardRouter.ALL_SHARDS) {
+            return shardRouter.limit(shard, queryShard(mappedStatement, boundStatement, rowBounds, rowMapperSupplier, mapResults, shard));
+        }
+        return scatterQuery(shardRouter, mappedStatement, boundStatement, rowBounds, rowMapperSupplier, mapResults, sequentialShards);
+    }
+
+    /**
+     * 取不到分片键的查询并行发到所有分片：声明了合并排序时多路归并（各分片结果需按同一顺序排好），否则按到达顺序合并，
+     * sequentialShards 时一个分片读完再读下一个；
+     * 分页时每个分片取前 offset + limit 行，合并后再跳过 offset、取 limit 行
+     */
+    private <T> Flux<T> scatterQuery(ShardRouter shardRouter, MappedStatement mappedStatement, BoundStatement boundStatement,
+                                     RowBounds rowBounds, Supplier<BiFunction<Row, RowMetadata, T>> rowMapperSupplier,
+                                     boolean mapResults, boolean sequentialShards) {
+        boolean paged = rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT;
+        RowBounds shardBounds = RowBounds.DEFAULT;
+        if (paged && rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+            shardBounds = new RowBounds(0, (int) Math.min(Integer.MAX_VALUE, (long) rowBounds.getOffset() + rowBounds.getLimit()));
+        }
+        @SuppressWarnings("unchecked")
+        Flux<T>[] sources = (Flux<T>[]) new Flux<?>[shardRouter.getShardCount()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = shardRouter.limit(i, queryShard(mappedStatement, boundStatement, shardBounds, rowMapperSupplier, mapResults, i));
+        }
+        Comparator<Object> mergeOrder = mapResults ? shardRouter.getMergeOrder(mappedStatement.getId()) : null;
+        Flux<T> rows;
+        if (sequentialShards) {
+            rows = Flux.concat(sources);
+        } else {
+            rows = mergeOrder != null ? Flux.mergeOrdered(mergeOrder, sources) : Flux.merge(sources);
+        }
+        if (paged) {
+            rows = rows.skip(rowBounds.getOffset()).take(rowBounds.getLimit(), true);
+        }
+        return rows;
+    }
+
+    /**
+     * ResultMap 含 association/collection 嵌套映射时，逐行映射的结果在这里流式合并成父对象（见 {@link NestedResults}），
+     * 分页在客户端按合并后的父对象计数。
+     * 语句的 fetchSize（没有时取 defaultFetchSize）传给驱动，并作为向驱动请求行的批大小（没有时取 resultPrefetch），
+     * 下游不限量请求时驱动每次也只被请求一批
+     */
+    private <T> Flux<T> queryShard(MappedStatement mappedStatement, BoundStatement boundStatement, RowBounds rowBounds,
+                                   Supplier<BiFunction<Row, RowMetadata, T>> rowMapperSupplier, boolean mapResults, int shard) {
+        boolean paged = rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT;
+        boolean nested = mapResults && configuration.getRowMapper(mappedStatement.getResultMaps().get(0)).hasNestedResultMaps();
+        // join 出来的行数与父对象个数不一致，嵌套映射的分页不下推到 SQL
+        boolean pushDown = paged && dialect != null && !nested;
+        Integer fetchSize = mappedStatement.getFetchSize() != null ? mappedStatement.getFetchSize() : configuration.getDefaultFetchSize();
+        int prefetch = fetchSize != null && fetchSize > 0 ? fetchSize : configuration.getResultPrefetch();
+        Flux<T> rows = inConnection(mappedStatement, boundStatement.getParameter(), shard, (connection, execution) -> {
+            long bindStart = execution.bindStart();
+            String sql = pushDown ? dialect.getPageSql(mappedStatement.getId(), boundStatement.getSql(), rowBounds.getOffset() > 0) : boundStatement.getSql(bindMarkers);
+            Statement statement = connection.createStatement(sql);
+            boundStatement.bind(statement);
+            if (pushDown) {
+                dialect.bindPage(statement, boundStatement.getParameterCount(), rowBounds.getOffset(), rowBounds.getLimit());
+            }
+            if (fetchSize != null) {
+                statement.fetchSize(fetchSize);
+            }
+            execution.bindEnd(bindStart, sql);
+            execution.executeStart();
+            BiFunction<Row, RowMetadata, T> rowMapper = rowMapperSupplier.get();
+            if (execution.isEnabled()) {
+                BiFunction<Row, RowMetadata, T> mapper = rowMapper;
+                rowMapper = (row, rowMetadata) -> {
+                    long mapStart = execution.mapStart();
+                    T mapped = mapper.apply(row, rowMetadata);
+                    execution.mapEnd(mapStart);
+                    return mapped;
+                };
+            }
+            BiFunction<Row, RowMetadata, T> mapper = rowMapper;
+            // concatMap 把下游的 request(n) 直接传给 Result，不像 flatMap 那样每个 Result 预取
+            Flux<T> mapped = timeout(mappedStatement, Flux.from(statement.execute())
+                    .concatMap(result -> result.map(mapper), 1));
+            return prefetch > 0 ? mapped.limitRate(prefetch) : mapped;
+        });
+        if (nested) {
+            rows = NestedResults.merge(rows, configuration.getNestedResultBufferSize());
+        }
+        if (paged && !pushDown) {
+            // 无法识别方言时退回客户端跳过
+            rows = rows.skip(rowBounds.getOffset()).take(rowBounds.getLimit(), true);
+        }
+        return rows;
+    }
+
+    /**
+     * 按 ResultMap 映射的查询，声明了 &lt;cache/&gt; 且 useCache 的语句走二级缓存：命中时直接回放，不获取连接；
+     * 未命中时读完整个结果再写入缓存，中途取消不写入；事务中只读不写，避免缓存未提交的数据
+     */
+    private <T> Flux<T> cachedQuery(MappedStatement mappedStatement, Object parameter, RowBounds rowBounds) {
+        Cache cache = mappedStatement.getCache();
+        BoundStatement boundStatement = configuration.getStatementPlanCache().prepare(mappedStatement, parameter);
+        Flux<T> queried = nestedSelects(mappedStatement, boundStatement, rowBounds);
+        Flux<T> rows = configuration.isCoalesced(mappedStatement.getId())
+                ? coalesce(mappedStatement, boundStatement, rowBounds, queried) : queried;
+        if (cache == null) {
+            return rows;
+        }
+        if (mappedStatement.isFlushCacheRequired()) {
+            return flushCache(mappedStatement, rows);
+        }
+        if (!mappedStatement.isUseCache()) {
+            return rows;
+        }
+        return Flux.defer(() -> {
+            CacheKey cacheKey = CacheKeys.create(configuration, mappedStatement, parameter, rowBounds, boundStatement.getBoundSql());
+            List<T> cached = (List<T>) cache.getObject(cacheKey);
+            if (cached != null) {
+                return Flux.fromIterable(cached);
+            }
+            return isTransactionActive().flatMapMany(transactional -> {
+                if (transactional) {
+                    return rows;
                 }
+                return rows.collectList()
+                        .doOnNext(list -> cache.putObject(cacheKey, list))
+                        .flatMapIterable(list -> list);
+            });
+        });
+    }
+
+    /**
+     * select= 嵌套查询：父对象每 nestedSelectBatchSize 个一批，每个嵌套属性一批只查一次，子对象挂到父对象上之后再输出这一批；
+     * 父对象的 key 在映射每行时从行中取出（见 {@link NestedSelectKeys}）；
+     * 事务中子查询与父查询共用事务连接，先读完父查询的结果再分批查子对象，不是批量的嵌套查询也逐个执行
+     */
+    private <T> Flux<T> nestedSelects(MappedStatement mappedStatement, BoundStatement boundStatement, RowBounds rowBounds) {
+        CompiledRowMapper rowMapper = configuration.getRowMapper(mappedStatement.getResultMaps().get(0));
+        List<NestedSelect> nestedSelects = rowMapper.getNestedSelects();
+        if (nestedSelects.isEmpty()) {
+            return query(mappedStatement, boundStatement, rowBounds, rowMapper(mappedStatement));
+        }
+        int batchSize = configuration.getNestedSelectBatchSize();
+        return Flux.defer(() -> {
+            NestedSelectKeys keys = new NestedSelectKeys(nestedSelects);
+            Flux<T> parents = query(mappedStatement, boundStatement, rowBounds, () -> keys.capture(rowMapper.forResult()));
+            return isTransactionActive().flatMapMany(transactional -> {
+                Flux<List<T>> batches = transactional
+                        ? parents.collectList().flatMapMany(all -> Flux.fromIterable(all).buffer(batchSize))
+                        : parents.buffer(batchSize);
+                int concurrency = transactional ? 1 : configuration.getNestedSelectConcurrency();
+                return batches.concatMap(batch -> Flux.range(0, nestedSelects.size())
+                        .concatMap(index -> loadNestedSelect(nestedSelects.get(index), index, keys, batch, concurrency))
+                        .then(Mono.fromRunnable(() -> keys.release(batch)))
+                        .thenMany(Flux.fromIterable(batch)));
+            });
+        });
+    }
+
+    /**
+     * @param index       嵌套查询在 ResultMap 中的序号
+     * @param concurrency 不是批量查询时同时执行的按 key 查询数
+     */
+    private Mono<Void> loadNestedSelect(NestedSelect nestedSelect, int index, NestedSelectKeys keys, List<?> parents, int concurrency) {
+        return Mono.defer(() -> {
+            Object[] parentKeys = new Object[parents.size()];
+            Set<Object> distinctKeys = new LinkedHashSet<>();
+            for (int i = 0; i < parentKeys.length; i++) {
+                parentKeys[i] = keys.readKey(index, parents.get(i));
+                if (parentKeys[i] != null) {
+                    distinctKeys.add(parentKeys[i]);
+                }
+            }
+            if (distinctKeys.isEmpty()) {
+                return Mono.empty();
+            }
+            MappedStatement childStatement = configuration.getMappedStatement(nestedSelect.getStatementId());
+            Map<Object, List<Object>> children = new HashMap<>();
+            Mono<Void> loaded;
+            if (nestedSelect.isBatched()) {
+                Object parameter = ParamNameResolver.wrapToMapIfCollection(new ArrayList<>(distinctKeys), null);
+                loaded = this.<Object>cachedQuery(childStatement, parameter, RowBounds.DEFAULT)
+                        .doOnNext(child -> children.computeIfAbsent(nestedSelect.readChildKey(child), key -> new ArrayList<>()).add(child))
+                        .then();
             } else {
-                RowWrapper rsw = new RowWrapper(row, rowMetadata, configuration);
-                List<UnMappedColumnHandler.UnMappedColumnAutoMapping> unmappedResultMappings = UnMappedColumnHandler.createAutomaticMappings(rsw, resultMap, resultMetaObject);
-                if(unmappedResultMappings.size() > 0) {
-                    for(UnMappedColumnHandler.UnMappedColumnAutoMapping mapping : unmappedResultMappings) {
-                        final Object value = mapping.getTypeHandler().getResult(rsw.getRow(), mapping.getColumn(), rowMetadata);
-                        if (value != null || (configuration.isCallSettersOnNulls() && !mapping.isPrimitive())) {
-                            resultMetaObject.setValue(mapping.getProperty(), value);
-                        }
+                loaded = Flux.fromIterable(distinctKeys)
+                        .flatMap(key -> this.<Object>cachedQuery(childStatement, key, RowBounds.DEFAULT).collectList()
+                                .map(list -> new AbstractMap.SimpleImmutableEntry<>(key, list)), concurrency)
+                        // flatMap 之后的回调是串行的
+                        .doOnNext(entry -> children.put(entry.getKey(), entry.getValue()))
+                        .then();
+            }
+            return loaded.then(Mono.fromRunnable(() -> {
+                for (int i = 0; i < parentKeys.length; i++) {
+                    if (parentKeys[i] != null) {
+                        nestedSelect.assign(parents.get(i), children.getOrDefault(parentKeys[i], Collections.emptyList()));
                     }
-                } else {
-                    rowMetadata.getColumnNames().forEach(column -> {
-                        Object columnValue = row.get(column);
-                        resultMetaObject.setValue(column, columnValue);
-                    });
                 }
+            }));
+        });
+    }
+
+    /**
+     * 执行期间到达的相同查询共享一次执行；事务中的查询用的是事务连接，不参与合并
+     */
+    private <T> Flux<T> coalesce(MappedStatement mappedStatement, BoundStatement boundStatement, RowBounds rowBounds, Flux<T> rows) {
+        return isTransactionActive().flatMapMany(transactional -> {
+            if (transactional) {
+                return rows;
+            }
+            CacheKey cacheKey = CacheKeys.create(configuration, mappedStatement, boundStatement.getParameter(), rowBounds,
+                    boundStatement.getBoundSql());
+            return configuration.getQueryCoalescer().coalesce(cacheKey, rows);
+        });
+    }
+
+    /**
+     * 需要刷新缓存的语句在执行前后各清一次（执行期间并发查询可能写回旧数据），事务中再在事务结束后清一次
+     */
+    private <T> Mono<T> flushCache(MappedStatement mappedStatement, Mono<T> source) {
+        if (mappedStatement.getCache() == null || !mappedStatement.isFlushCacheRequired()) {
+            return source;
+        }
+        return clearCache(mappedStatement.getCache())
+                .then(source)
+                .flatMap(value -> clearCache(mappedStatement.getCache()).thenReturn(value));
+    }
+
+    private <T> Flux<T> flushCache(MappedStatement mappedStatement, Flux<T> source) {
+        if (mappedStatement.getCache() == null || !mappedStatement.isFlushCacheRequired()) {
+            return source;
+        }
+        return clearCache(mappedStatement.getCache())
+                .thenMany(source)
+                .concatWith(clearCache(mappedStatement.getCache()).then(Mono.empty()));
+    }
+
+    private Mono<Void> clearCache(Cache cache) {
+        return Mono.fromRunnable(cache::clear)
+                .then(TransactionSynchronizationManager.forCurrentTransaction())
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(synchronizationManager -> synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCompletion(int status) {
+                        return Mono.fromRunnable(cache::clear);
+                    }
+                }))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<Boolean> isTransactionActive() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .map(TransactionSynchronizationManager::isActualTransactionActive)
+                .onErrorReturn(NoTransactionException.class, false);
+    }
+
+    private <T> Supplier<BiFunction<Row, RowMetadata, T>> rowMapper(MappedStatement mappedStatement) {
+        CompiledRowMapper rowMapper = configuration.getRowMapper(mappedStatement.getResultMaps().get(0));
+        return rowMapper::forResult;
+    }
+
+    public Object convertRowToResult(Row row, RowMetadata rowMetadata, ResultMap resultMap) {
+        return configuration.getRowMapper(resultMap).map(row, rowMetadata);
+    }
+
+    /**
+     * 在连接上执行，事务中（R2dbcTransactionManager/TransactionalOperator）复用 Reactor Context 里绑定的连接，否则用完即释放；
+     * 配置了只读副本时，不在事务中的 SELECT 从副本获取连接；shard 不小于 0 时在该分片上新建连接，用完关闭
+     */
+    private <T> Flux<T> inConnection(MappedStatement mappedStatement, Object parameter, int shard,
+                                     BiFunction<Connection, StatementExecution, Publisher<T>> action) {
+        if (configuration.getStatementListeners().isEmpty()) {
+            return Flux.usingWhen(acquireConnection(mappedStatement, shard, StatementExecution.DISABLED),
+                    lease -> action.apply(lease.connection, StatementExecution.DISABLED),
+                    lease -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.SUCCESS, null),
+                    (lease, error) -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.ERROR, error),
+                    lease -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.CANCELLED, null));
+        }
+        return Flux.defer(() -> {
+            StatementExecution execution = new StatementExecution(configuration.getStatementListeners(), mappedStatement, parameter);
+            return Flux.usingWhen(acquireConnection(mappedStatement, shard, execution), lease -> action.apply(lease.connection, execution),
+                    lease -> releaseConnection(lease, execution, StatementExecution.Outcome.SUCCESS, null),
+                    (lease, error) -> releaseConnection(lease, execution, StatementExecution.Outcome.ERROR, error),
+                    lease -> releaseConnection(lease, execution, StatementExecution.Outcome.CANCELLED, null));
+        });
+    }
+
+    private <T> Mono<T> withConnection(MappedStatement mappedStatement, Object parameter, int shard,
+                                       BiFunction<Connection, StatementExecution, Mono<T>> action) {
+        if (configuration.getStatementListeners().isEmpty()) {
+            return Mono.usingWhen(acquireConnection(mappedStatement, shard, StatementExecution.DISABLED),
+                    lease -> action.apply(lease.connection, StatementExecution.DISABLED),
+                    lease -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.SUCCESS, null),
+                    (lease, error) -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.ERROR, error),
+                    lease -> releaseConnection(lease, StatementExecution.DISABLED, StatementExecution.Outcome.CANCELLED, null));
+        }
+        return Mono.defer(() -> {
+            StatementExecution execution = new StatementExecution(configuration.getStatementListeners(), mappedStatement, parameter);
+            return Mono.usingWhen(acquireConnection(mappedStatement, shard, execution), lease -> action.apply(lease.connection, execution),
+                    lease -> releaseConnection(lease, execution, StatementExecution.Outcome.SUCCESS, null),
+                    (lease, error) -> releaseConnection(lease, execution, StatementExecution.Outcome.ERROR, error),
+                    lease -> releaseConnection(lease, execution, StatementExecution.Outcome.CANCELLED, null));
+        });
+    }
+
+    private Mono<ConnectionLease> acquireConnection(MappedStatement mappedStatement, int shard, StatementExecution execution) {
+        ReplicaRouter replicaRouter = configuration.getReplicaRouter();
+        Mono<ConnectionLease> lease;
+        if (shard >= 0) {
+            lease = Mono.from(configuration.getShardRouter().getShard(shard).create()).map(ConnectionLease::detached);
+        } else if (replicaRouter == null || mappedStatement.getSqlCommandType() != SqlCommandType.SELECT
+                || configuration.isPrimaryStatement(mappedStatement.getId())) {
+            lease = primaryConnection();
+        } else {
+            lease = isTransactionActive()
+                    .flatMap(active -> active ? primaryConnection() : replicaConnection(replicaRouter));
+        }
+        if (execution.isEnabled()) {
+            lease = lease.doOnNext(acquired -> execution.acquired()).doOnError(execution::acquireFailed);
+        }
+        return lease;
+    }
+
+    private Mono<ConnectionLease> primaryConnection() {
+        return ConnectionFactoryUtils.getConnection(connectionFactory).map(ConnectionLease::new);
+    }
+
+    /**
+     * 副本获取连接失败时记一次失败并退回主库，此时语句还没有执行
+     */
+    private Mono<ConnectionLease> replicaConnection(ReplicaRouter replicaRouter) {
+        return Mono.defer(() -> {
+            Replica replica = replicaRouter.select();
+            if (replica == null) {
+                return primaryConnection();
+            }
+            return Mono.from(replica.getConnectionFactory().create())
+                    .map(connection -> {
+                        replicaRouter.acquired(replica);
+                        return new ConnectionLease(connection, replicaRouter, replica);
+                    })
+                    .onErrorResume(e -> {
+                        replicaRouter.failed(replica, e, true);
+                        return primaryConnection();
+                    });
+        });
+    }
+
+    private Mono<Void> releaseConnection(ConnectionLease lease, StatementExecution execution, StatementExecution.Outcome outcome,
+                                         Throwable error) {
+        if (error instanceof StatementTimeoutException) {
+            outcome = StatementExecution.Outcome.TIMEOUT;
+        }
+        Mono<Void> release;
+        if (lease.managed) {
+            release = releaseConnection(lease.connection);
+        } else if (lease.replica == null) {
+            release = Mono.from(lease.connection.close());
+        } else {
+            if (outcome == StatementExecution.Outcome.ERROR) {
+                lease.replicaRouter.failed(lease.replica, error, false);
+            } else if (outcome == StatementExecution.Outcome.SUCCESS) {
+                lease.replicaRouter.succeeded(lease.replica);
             }
-            return object;
+            lease.replicaRouter.released(lease.replica);
+            release = Mono.from(lease.connection.close());
         }
+        if (!execution.isEnabled()) {
+            return release;
+        }
+        execution.releaseStart(outcome, error);
+        return release.doFinally(signal -> execution.finish());
     }
 
-    private Flux<? extends Result> executeFluxStatement(Connection connection, Statement statement) {
-        return Flux.from(statement.execute())
-                .doFinally(a -> ((Mono<Void>) connection.close()).subscribe());
+    /**
+     * 事务中的连接由事务管理器在提交/回滚后关闭，这里只关闭非事务连接（与 DatabaseClient 的做法一致）
+     */
+    private Mono<Void> releaseConnection(Connection connection) {
+        return ConnectionFactoryUtils.currentConnectionFactory(connectionFactory)
+                .then()
+                .onErrorResume(Exception.class, e -> Mono.from(connection.close()));
     }
-    private Mono<? extends Result> executeMonoStatement(Connection connection, Statement statement) {
-        return Mono.from(statement.execute())
-                .doFinally(a -> ((Mono<Void>) connection.close()).subscribe());
+
+    /**
+     * 获取到的连接及其来源：主库连接可能属于事务，由 {@link #releaseConnection(Connection)} 判断是否关闭；
+     * 副本和分片的连接用完即关闭，副本还要归还占用计数、记录成功或失败
+     */
+    private static class ConnectionLease {
+
+        private final Connection connection;
+
+        private final boolean managed;
+
+        private final ReplicaRouter replicaRouter;
+
+        private final Replica replica;
+
+        ConnectionLease(Connection connection) {
+            this(connection, true, null, null);
+        }
+
+        ConnectionLease(Connection connection, ReplicaRouter replicaRouter, Replica replica) {
+            this(connection, false, replicaRouter, replica);
+        }
+
+        private ConnectionLease(Connection connection, boolean managed, ReplicaRouter replicaRouter, Replica replica) {
+            this.connection = connection;
+            this.managed = managed;
+            this.replicaRouter = replicaRouter;
+            this.replica = replica;
+        }
+
+        static ConnectionLease detached(Connection connection) {
+            return new ConnectionLease(connection, false, null, null);
+        }
     }
-    private Mono<Connection> getConnection() {
-        return (Mono<Connection>) connectionFactory.create();
+
+    private static class MultiRowParameter {
+
+        private final BoundStatement boundStatement;
+
+        private MultiRowInsertSql insertSql;
+
+        MultiRowParameter(BoundStatement boundStatement) {
+            this.boundStatement = boundStatement;
+        }
     }
 
+    /**
+     * 按参数个数和语句大小（SQL 长度加绑定值的估算字节数）把连续的、SQL 相同的行分到同一条语句
+     */
+    private static class MultiRowPacker {
+
+        private final int maxParameters;
+
+        private final int maxBytes;
+
+        /**
+         * 当前语句的 SQL（占位符为 ?）和解析结果，SQL 不能改写时解析结果为 null
+         */
+        private String currentSql;
+
+        private MultiRowInsertSql current;
+
+        private int parameters;
+
+        private long bytes;
+
+        MultiRowPacker(int maxParameters, int maxBytes) {
+            this.maxParameters = maxParameters;
+            this.maxBytes = maxBytes;
+        }
+
+        boolean startsNewStatement(MultiRowParameter row) {
+            String sql = row.boundStatement.getSql();
+            // 连续的行通常是同一个 SQL，按文本比较后沿用上一行的解析结果，只在 SQL 变化时解析
+            boolean sameSql = sql.equals(currentSql);
+            MultiRowInsertSql insertSql = sameSql ? current : parse(row);
+            row.insertSql = insertSql;
+            // 语句大小按 SQL 长度加上绑定值的估算字节数计算
+            long rowBytes = insertSql == null ? 0 : insertSql.getRowLength() + row.boundStatement.estimateSize();
+            if (insertSql != null && sameSql && parameters + insertSql.getRowParameters() <= maxParameters
+                    && bytes + rowBytes <= maxBytes) {
+                parameters += insertSql.getRowParameters();
+                bytes += rowBytes;
+                return false;
+            }
+            currentSql = sql;
+            current = insertSql;
+            parameters = insertSql == null ? 0 : insertSql.getRowParameters();
+            bytes = insertSql == null ? 0 : insertSql.getBaseLength() + rowBytes;
+            return true;
+        }
+
+        private static MultiRowInsertSql parse(MultiRowParameter row) {
+            MultiRowInsertSql insertSql = MultiRowInsertSql.parse(row.boundStatement.getSql());
+            if (insertSql != null && insertSql.getRowParameters() != row.boundStatement.getParameterCount()) {
+                return null;
+            }
+            return insertSql;
+        }
+    }
 }
@@ -51,5 +51,11 @@ public class DefaultReactiveSqlSessionFactory implements ReactiveSqlSessionFacto
                 connectionPool.dispose();
             }
         }
+        if (this.configuration.getReplicaRouter() != null) {
+            this.configuration.getReplicaRouter().dispose();
+        }
+        if (this.configuration.getShardRouter() != null) {
+            this.configuration.getShardRouter().dispose();
+        }
     }
 }
@@ -0,0 +1,206 @@
+package com.lji.mybatis.r2dbc.base.impl;
+
+import com.lji.mybatis.r2dbc.base.dialect.BindMarkers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单行 INSERT ... VALUES (...) 的拆分结果，用于拼成多行 VALUES (...),(...)；
+ * 只接受参数全部在 VALUES 括号内、且只有一组 VALUES 的语句
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class MultiRowInsertSql {
+
+    private static final int MAX_CACHED_SQL = 1024;
+
+    private static final MultiRowInsertSql NOT_REWRITABLE = new MultiRowInsertSql(null, null, null, null);
+
+    private static final Map<String, MultiRowInsertSql> CACHE = new ConcurrentHashMap<>();
+
+    private final String prefix;
+
+    private final String values;
+
+    private final String suffix;
+
+    /**
+     * VALUES 部分按 ? 切开的片段，个数为参数个数 + 1
+     */
+    private final String[] valueParts;
+
+    private MultiRowInsertSql(String prefix, String values, String suffix, String[] valueParts) {
+        this.prefix = prefix;
+        this.values = values;
+        this.suffix = suffix;
+        this.valueParts = valueParts;
+    }
+
+    /**
+     * @return 不能改写时返回 null
+     */
+    public static MultiRowInsertSql parse(String sql) {
+        MultiRowInsertSql parsed = CACHE.get(sql);
+        if (parsed == null) {
+            if (CACHE.size() >= MAX_CACHED_SQL) {
+                CACHE.clear();
+            }
+            parsed = doParse(sql);
+            CACHE.put(sql, parsed == null ? NOT_REWRITABLE : parsed);
+        }
+        return parsed == NOT_REWRITABLE ? null : parsed;
+    }
+
+    public int getRowParameters() {
+        return valueParts.length - 1;
+    }
+
+    /**
+     * 单行 VALUES 部分的长度，含分隔的逗号；按 ? 计算，改写占位符后略长
+     */
+    public int getRowLength() {
+        return values.length() + 1;
+    }
+
+    public int getBaseLength() {
+        return prefix.length() + suffix.length();
+    }
+
+    public String build(int rows) {
+        StringBuilder sql = new StringBuilder(getBaseLength() + getRowLength() * rows);
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(values);
+        }
+        return sql.append(suffix).toString();
+    }
+
+    /**
+     * 多行 SQL，占位符直接按方言生成，下标跨行连续
+     */
+    public String build(int rows, BindMarkers bindMarkers) {
+        if (bindMarkers.isQuestionMark()) {
+            return build(rows);
+        }
+        int rowParameters = getRowParameters();
+        StringBuilder sql = new StringBuilder(getBaseLength() + (getRowLength() + rowParameters * 4) * rows);
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(valueParts[0]);
+            for (int j = 1; j < valueParts.length; j++) {
+                bindMarkers.appendMarker(sql, i * rowParameters + j - 1);
+                sql.append(valueParts[j]);
+            }
+        }
+        return sql.append(suffix).toString();
+    }
+
+    private static MultiRowInsertSql doParse(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        String upper = trimmed.toUpperCase(Locale.ENGLISH);
+        if (!upper.startsWith("INSERT")) {
+            return null;
+        }
+        int valuesKeyword = -1;
+        int depth = 0;
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(upper, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '-' && upper.startsWith("--", i) || c == '/' && upper.startsWith("/*", i)) {
+                // 带注释的语句不改写
+                return null;
+            } else if (c == '?' && valuesKeyword < 0) {
+                // VALUES 之前出现参数
+                return null;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && upper.startsWith("VALUES", i) && isWordBoundary(upper, i - 1)
+                    && isWordBoundary(upper, i + 6)) {
+                if (valuesKeyword >= 0) {
+                    return null;
+                }
+                valuesKeyword = i;
+                i += 5;
+            }
+        }
+        if (valuesKeyword < 0) {
+            return null;
+        }
+        int start = valuesKeyword + 6;
+        while (start < trimmed.length() && Character.isWhitespace(trimmed.charAt(start))) {
+            start++;
+        }
+        if (start >= trimmed.length() || trimmed.charAt(start) != '(') {
+            return null;
+        }
+        List<String> valueParts = new ArrayList<>();
+        int partStart = start;
+        int end = -1;
+        depth = 0;
+        for (int i = start; i < trimmed.length() && end < 0; i++) {
+            char c = trimmed.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(trimmed, i);
+                if (i < 0) {
+                    return null;
+                }
+            } else if (c == '?') {
+                valueParts.add(trimmed.substring(partStart, i));
+                partStart = i + 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                end = i;
+            }
+        }
+        if (end < 0) {
+            return null;
+        }
+        String suffix = trimmed.substring(end + 1);
+        // 已经是多行，或 VALUES 之后（如 ON DUPLICATE KEY UPDATE）还有参数
+        if (suffix.trim().startsWith(",") || suffix.indexOf('?') >= 0) {
+            return null;
+        }
+        valueParts.add(trimmed.substring(partStart, end + 1));
+        return new MultiRowInsertSql(trimmed.substring(0, start), trimmed.substring(start, end + 1), suffix,
+                valueParts.toArray(new String[0]));
+    }
+
+    private static int skipQuoted(String sql, int start) {
+        char quote = sql.charAt(start);
+        for (int i = start + 1; i < sql.length(); i++) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWordBoundary(String sql, int index) {
+        return index < 0 || index >= sql.length() || !Character.isLetterOrDigit(sql.charAt(index)) && sql.charAt(index) != '_';
+    }
+}
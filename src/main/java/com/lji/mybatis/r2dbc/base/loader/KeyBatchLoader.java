@@ -0,0 +1,231 @@
+package com.lji.mybatis.r2dbc.base.loader;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 按 key 加载的批量合并：时间窗口内（或攒够 maxBatchSize 个）的 key 合并成一次查询，结果按 key 分发给各个调用；
+ * 合并前取消的调用直接移出，一批的调用全部取消时取消这次查询
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class KeyBatchLoader {
+
+    private final Function<List<Object>, Flux<?>> query;
+
+    private final Function<Object, Object> keyExtractor;
+
+    private final Duration window;
+
+    private final int maxBatchSize;
+
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+
+    private List<Pending> pending = new ArrayList<>();
+
+    /**
+     * 当前窗口的定时 flush 和窗口序号，窗口提前结束时取消；已经触发、正在等锁的定时器按序号忽略。在 lock 内读写
+     */
+    private Disposable windowTimer;
+
+    private long windowId;
+
+    /**
+     * @param query        key 列表到结果行的查询
+     * @param keyExtractor 从结果行取 key
+     */
+    public KeyBatchLoader(Function<List<Object>, Flux<?>> query, Function<Object, Object> keyExtractor,
+                          Duration window, int maxBatchSize) {
+        this(query, keyExtractor, window, maxBatchSize, Schedulers.parallel());
+    }
+
+    public KeyBatchLoader(Function<List<Object>, Flux<?>> query, Function<Object, Object> keyExtractor,
+                          Duration window, int maxBatchSize, Scheduler scheduler) {
+        this.query = query;
+        this.keyExtractor = keyExtractor;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> load(Object key) {
+        return Mono.create(sink -> {
+            Pending request = new Pending(key, (MonoSink<Object>) (MonoSink<?>) sink);
+            sink.onCancel(() -> cancel(request));
+            add(request);
+        });
+    }
+
+    private void add(Pending request) {
+        Batch ready = null;
+        synchronized (lock) {
+            pending.add(request);
+            if (pending.size() >= maxBatchSize) {
+                ready = takePending();
+            } else if (pending.size() == 1) {
+                // 上一个窗口的调用可能已全部取消，它的定时器不能提前发出这个窗口
+                closeWindow();
+                long id = windowId;
+                windowTimer = scheduler.schedule(() -> flush(id), window.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+    }
+
+    private void flush(long id) {
+        Batch ready;
+        synchronized (lock) {
+            if (id != windowId || pending.isEmpty()) {
+                return;
+            }
+            ready = takePending();
+        }
+        dispatch(ready);
+    }
+
+    /**
+     * 在 lock 内调用：取出等待中的调用组成一批，之后的取消通过这一批计数
+     */
+    private Batch takePending() {
+        closeWindow();
+        Batch batch = new Batch(pending);
+        for (Pending request : pending) {
+            request.batch = batch;
+        }
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    /**
+     * 在 lock 内调用：结束当前窗口，取消它的定时 flush
+     */
+    private void closeWindow() {
+        windowId++;
+        if (windowTimer != null) {
+            windowTimer.dispose();
+            windowTimer = null;
+        }
+    }
+
+    private void cancel(Pending request) {
+        Batch batch;
+        synchronized (lock) {
+            if (pending.remove(request)) {
+                return;
+            }
+            batch = request.batch;
+        }
+        if (batch != null && batch.remaining.decrementAndGet() == 0) {
+            batch.subscription.dispose();
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        List<Pending> requests = batch.requests;
+        Map<Object, Object> keys = new LinkedHashMap<>();
+        for (Pending request : requests) {
+            keys.putIfAbsent(normalize(request.key), request.key);
+        }
+        Flux<?> rows;
+        try {
+            rows = query.apply(new ArrayList<>(keys.values()));
+        } catch (RuntimeException e) {
+            rows = Flux.error(e);
+        }
+        Disposable subscription = rows.collectList().subscribe(list -> {
+            Map<Object, Object> rowsByKey = new HashMap<>(list.size() * 4 / 3 + 1);
+            for (Object row : list) {
+                rowsByKey.putIfAbsent(normalize(keyExtractor.apply(row)), row);
+            }
+            for (Pending request : requests) {
+                Object row = rowsByKey.get(normalize(request.key));
+                if (row == null) {
+                    request.sink.success();
+                } else {
+                    request.sink.success(row);
+                }
+            }
+        }, error -> {
+            for (Pending request : requests) {
+                request.sink.error(error);
+            }
+        });
+        // 订阅前一批已经全部取消时，update 会立即取消这次订阅
+        batch.subscription.update(subscription);
+    }
+
+    /**
+     * 整数类的 key 统一成 Long，避免参数是 Integer、数据库返回 Long 时对不上
+     */
+    static Object normalize(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte) {
+            return ((Number) key).longValue();
+        } else if (key instanceof BigInteger && ((BigInteger) key).bitLength() < 64) {
+            return ((BigInteger) key).longValue();
+        } else if (key instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) key).stripTrailingZeros();
+            if (decimal.scale() <= 0 && decimal.precision() - decimal.scale() < 19) {
+                return decimal.longValue();
+            }
+            return decimal;
+        }
+        return key;
+    }
+
+    private static class Pending {
+
+        private final Object key;
+
+        private final MonoSink<Object> sink;
+
+        /**
+         * 所在的一批，还在等待合并时为 null；在 lock 内读写
+         */
+        private Batch batch;
+
+        Pending(Object key, MonoSink<Object> sink) {
+            this.key = key;
+            this.sink = sink;
+        }
+    }
+
+    private static class Batch {
+
+        private final List<Pending> requests;
+
+        /**
+         * 还没取消的调用数
+         */
+        private final AtomicInteger remaining;
+
+        private final Disposable.Swap subscription = Disposables.swap();
+
+        Batch(List<Pending> requests) {
+            this.requests = requests;
+            this.remaining = new AtomicInteger(requests.size());
+        }
+    }
+}
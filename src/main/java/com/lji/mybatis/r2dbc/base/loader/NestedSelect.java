@@ -0,0 +1,237 @@
+package com.lji.mybatis.r2dbc.base.loader;
+
+import com.lji.mybatis.r2dbc.base.mapping.CompiledRowMapper;
+import com.lji.mybatis.r2dbc.base.mapping.PropertySetter;
+import com.lji.mybatis.r2dbc.base.statement.PropertyGetter;
+import com.lji.mybatis.r2dbc.base.statement.PropertyGetters;
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ResultMap 中一个 {@code <association select="...">} / {@code <collection select="...">} 映射：
+ * 父对象的 key 取映射这一行时 column 列（组合 key 时各列）的值，结果中没有这些列时取列映射到的属性；子语句用 {@link com.lji.mybatis.r2dbc.annotation.BatchSelect}
+ * （或 r2dbc.mybatis.batch-select-statements）声明为批量时按一批 key 的列表执行一次（{@code <foreach collection="list">}），
+ * 结果按声明的 keyProperty 分给父对象；没有声明或是组合 key 时每个不同的 key 查一次
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class NestedSelect {
+
+    private static final Logger logger = LoggerFactory.getLogger(NestedSelect.class);
+
+    private final R2dbcConfiguration configuration;
+
+    private final String statementId;
+
+    private final String property;
+
+    private final PropertySetter setter;
+
+    /**
+     * 集合属性的声明类型，association 为 null
+     */
+    private final Class<?> collectionType;
+
+    /**
+     * 组合 key 时为子查询的参数名，单个 key 时为 null
+     */
+    private final String[] parameterNames;
+
+    /**
+     * key 的列，单个 key 时只有一个
+     */
+    private final String[] columns;
+
+    /**
+     * 列映射到的父对象属性，列没有映射到属性时为 null
+     */
+    private final PropertyGetter[] keyGetters;
+
+    /**
+     * 子对象中与父 key 对应的属性，不是批量查询时为 null
+     */
+    private final String childKeyProperty;
+
+    private volatile PropertyGetter childKeyGetter;
+
+    private NestedSelect(R2dbcConfiguration configuration, CompiledRowMapper rowMapper, ResultMapping resultMapping) {
+        this.configuration = configuration;
+        this.statementId = resultMapping.getNestedQueryId();
+        this.property = resultMapping.getProperty();
+        this.setter = rowMapper.getSetter(property);
+        Class<?> propertyType = rowMapper.getSetterType(property);
+        this.collectionType = Collection.class.isAssignableFrom(propertyType) ? propertyType : null;
+        ResultMap resultMap = rowMapper.getResultMap();
+        if (resultMapping.isCompositeResult()) {
+            List<ResultMapping> composites = resultMapping.getComposites();
+            this.parameterNames = new String[composites.size()];
+            this.columns = new String[composites.size()];
+            this.keyGetters = new PropertyGetter[composites.size()];
+            for (int i = 0; i < composites.size(); i++) {
+                parameterNames[i] = composites.get(i).getProperty();
+                columns[i] = composites.get(i).getColumn();
+                keyGetters[i] = getter(configuration, resultMap, columns[i]);
+            }
+            this.childKeyProperty = null;
+        } else {
+            this.parameterNames = null;
+            this.columns = new String[]{resultMapping.getColumn()};
+            this.keyGetters = new PropertyGetter[]{getter(configuration, resultMap, columns[0])};
+            this.childKeyProperty = configuration.getBatchSelectKeyProperty(statementId);
+        }
+    }
+
+    /**
+     * @return ResultMap 中 select= 的属性映射，没有时为空列表
+     */
+    public static List<NestedSelect> forResultMap(R2dbcConfiguration configuration, CompiledRowMapper rowMapper) {
+        ResultMap resultMap = rowMapper.getResultMap();
+        if (!resultMap.hasNestedQueries()) {
+            return Collections.emptyList();
+        }
+        List<NestedSelect> nestedSelects = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+            if (resultMapping.getNestedQueryId() != null) {
+                nestedSelects.add(new NestedSelect(configuration, rowMapper, resultMapping));
+            }
+        }
+        return nestedSelects;
+    }
+
+    /**
+     * 启动时列出不是批量的 select= 嵌套查询：每批父对象中每个不同的 key 各查一次
+     */
+    public static void warnUnbatched(R2dbcConfiguration configuration) {
+        // 同一个 ResultMap 以全名和短名各登记一次，短名冲突时的占位对象不是 ResultMap
+        Set<ResultMap> resultMaps = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object resultMap : configuration.getResultMaps()) {
+            if (resultMap instanceof ResultMap && ((ResultMap) resultMap).hasNestedQueries()) {
+                resultMaps.add((ResultMap) resultMap);
+            }
+        }
+        for (ResultMap resultMap : resultMaps) {
+            for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+                String statementId = resultMapping.getNestedQueryId();
+                if (statementId == null) {
+                    continue;
+                }
+                if (resultMapping.isCompositeResult()) {
+                    logger.warn("Nested select '{}' for property '{}' of result map '{}' has a composite key and runs once per key",
+                            statementId, resultMapping.getProperty(), resultMap.getId());
+                } else if (configuration.getBatchSelectKeyProperty(statementId) == null) {
+                    logger.warn("Nested select '{}' for property '{}' of result map '{}' is not batched and runs once per key; "
+                                    + "declare it with @BatchSelect or r2dbc.mybatis.batch-select-statements to load each batch in one query",
+                            statementId, resultMapping.getProperty(), resultMap.getId());
+                }
+            }
+        }
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return 子查询是否以一批 key 的列表为参数
+     */
+    public boolean isBatched() {
+        return childKeyProperty != null;
+    }
+
+    /**
+     * @param rowValues 映射父对象时从行中取出的 key 列的值，行中没有这些列时为 null，改取父对象的属性
+     * @return 父对象的 key（整数统一成 Long），组合 key 时是参数名到值的 Map；有 null 时返回 null，不查询
+     */
+    public Object readKey(Object parent, Object[] rowValues) {
+        if (parameterNames == null) {
+            return KeyBatchLoader.normalize(rowValues != null ? rowValues[0] : readProperty(0, parent));
+        }
+        Map<String, Object> key = new HashMap<>(parameterNames.length * 4 / 3 + 1);
+        for (int i = 0; i < parameterNames.length; i++) {
+            Object value = rowValues != null ? rowValues[i] : readProperty(i, parent);
+            if (value == null) {
+                return null;
+            }
+            key.put(parameterNames[i], value);
+        }
+        return key;
+    }
+
+    private Object readProperty(int index, Object parent) {
+        return keyGetters[index] != null ? keyGetters[index].get(parent) : null;
+    }
+
+    /**
+     * 批量查询时子对象对应的父 key
+     */
+    public Object readChildKey(Object child) {
+        PropertyGetter getter = childKeyGetter;
+        if (getter == null) {
+            // 子语句可能在父 ResultMap 之后才解析，第一次用到时再定位
+            MappedStatement mappedStatement = configuration.getMappedStatement(statementId);
+            getter = PropertyGetters.forProperty(configuration, mappedStatement.getResultMaps().get(0).getType(), childKeyProperty);
+            childKeyGetter = getter;
+        }
+        return KeyBatchLoader.normalize(getter.get(child));
+    }
+
+    /**
+     * 集合属性设置为子对象集合（没有时为空集合），association 取第一个，没有时不设置
+     */
+    @SuppressWarnings("unchecked")
+    public void assign(Object parent, List<Object> children) {
+        if (collectionType != null) {
+            Collection<Object> collection = (Collection<Object>) configuration.getObjectFactory().create(collectionType);
+            collection.addAll(children);
+            setter.set(parent, collection);
+        } else if (!children.isEmpty()) {
+            setter.set(parent, children.get(0));
+        }
+    }
+
+    /**
+     * 列映射到的属性：先找 ResultMap 中显式映射该列的属性，再按自动映射的规则找，都没有时返回 null
+     */
+    private static PropertyGetter getter(R2dbcConfiguration configuration, ResultMap resultMap, String column) {
+        String property = null;
+        for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+            if (column.equalsIgnoreCase(resultMapping.getColumn()) && resultMapping.getProperty() != null
+                    && resultMapping.getNestedQueryId() == null && resultMapping.getNestedResultMapId() == null) {
+                property = resultMapping.getProperty();
+                break;
+            }
+        }
+        if (property == null) {
+            property = Map.class.isAssignableFrom(resultMap.getType()) ? column
+                    : MetaClass.forClass(resultMap.getType(), configuration.getReflectorFactory())
+                    .findProperty(column, configuration.isMapUnderscoreToCamelCase());
+        }
+        if (property == null) {
+            return null;
+        }
+        return PropertyGetters.forProperty(configuration, resultMap.getType(), property);
+    }
+}
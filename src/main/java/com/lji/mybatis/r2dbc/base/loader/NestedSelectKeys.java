@@ -0,0 +1,128 @@
+package com.lji.mybatis.r2dbc.base.loader;
+
+import com.lji.mybatis.r2dbc.base.mapping.ResultNode;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * 一次查询中父对象的嵌套查询 key：映射每行时从 Row 取出各个嵌套查询 column（组合 key 时各列）的值，按父对象实例保存，
+ * 这一批父对象的嵌套查询完成后移除；行中没有这些列时由 {@link NestedSelect} 改取父对象的属性
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class NestedSelectKeys {
+
+    private final List<NestedSelect> nestedSelects;
+
+    /**
+     * 分片查询的行在不同线程上映射
+     */
+    private final Map<Object, Object[][]> captured = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public NestedSelectKeys(List<NestedSelect> nestedSelects) {
+        this.nestedSelects = nestedSelects;
+    }
+
+    /**
+     * 包装一个 Result 的映射函数，映射出父对象后记下这一行的 key 列，列下标在第一行时确定
+     */
+    public <T> BiFunction<Row, RowMetadata, T> capture(BiFunction<Row, RowMetadata, T> mapper) {
+        return new BiFunction<Row, RowMetadata, T>() {
+            private int[][] indexes;
+
+            private Object lastNodeKey;
+
+            @Override
+            public T apply(Row row, RowMetadata rowMetadata) {
+                T result = mapper.apply(row, rowMetadata);
+                Object parent = result;
+                if (result instanceof ResultNode) {
+                    ResultNode node = (ResultNode) result;
+                    // 嵌套 ResultMap 中同一父对象的后续行合并时会被丢弃，只记第一行
+                    if (node.getKey().equals(lastNodeKey)) {
+                        return result;
+                    }
+                    lastNodeKey = node.getKey();
+                    parent = node.getValue();
+                }
+                if (parent == null) {
+                    return result;
+                }
+                if (indexes == null) {
+                    indexes = resolveIndexes(rowMetadata);
+                }
+                Object[][] values = new Object[indexes.length][];
+                boolean present = false;
+                for (int i = 0; i < indexes.length; i++) {
+                    if (indexes[i] != null) {
+                        values[i] = new Object[indexes[i].length];
+                        for (int j = 0; j < indexes[i].length; j++) {
+                            values[i][j] = row.get(indexes[i][j]);
+                        }
+                        present = true;
+                    }
+                }
+                if (present) {
+                    captured.put(parent, values);
+                }
+                return result;
+            }
+        };
+    }
+
+    /**
+     * @param index 嵌套查询在 ResultMap 中的序号
+     * @return 父对象的 key，见 {@link NestedSelect#readKey(Object, Object[])}
+     */
+    public Object readKey(int index, Object parent) {
+        Object[][] values = captured.get(parent);
+        return nestedSelects.get(index).readKey(parent, values == null ? null : values[index]);
+    }
+
+    /**
+     * 这一批父对象的嵌套查询已完成
+     */
+    public void release(List<?> parents) {
+        for (Object parent : parents) {
+            captured.remove(parent);
+        }
+    }
+
+    /**
+     * @return 每个嵌套查询的 key 列下标，有列不在结果中时为 null
+     */
+    private int[][] resolveIndexes(RowMetadata rowMetadata) {
+        // 有的驱动的列名集合 toArray(T[]) 不返回 String[]，逐个取出
+        List<String> columnNames = new ArrayList<>(rowMetadata.getColumnNames());
+        int[][] indexes = new int[nestedSelects.size()][];
+        for (int i = 0; i < indexes.length; i++) {
+            String[] columns = nestedSelects.get(i).getColumns();
+            int[] columnIndexes = new int[columns.length];
+            for (int j = 0; j < columns.length && columnIndexes != null; j++) {
+                columnIndexes[j] = indexOf(columnNames, columns[j]);
+                if (columnIndexes[j] < 0) {
+                    columnIndexes = null;
+                }
+            }
+            indexes[i] = columnIndexes;
+        }
+        return indexes;
+    }
+
+    private static int indexOf(List<String> columnNames, String column) {
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (columnNames.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,368 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import com.lji.mybatis.r2dbc.base.loader.NestedSelect;
+import com.lji.mybatis.r2dbc.base.type.DefaultTypeHandler;
+import com.lji.mybatis.r2dbc.base.type.R2DBCTypeHandler;
+import com.lji.mybatis.r2dbc.base.type.TypeHandlerRegistry;
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.type.TypeHandler;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 预编译的 ResultMap 行映射：构造器、setter 和类型处理器在创建时解析一次，每行只做一次实例化和直接的 setter 调用
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class CompiledRowMapper {
+
+    private static final List<Class<?>> NUMBER_TYPES = Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class,
+            Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
+    private final R2dbcConfiguration configuration;
+
+    private final ResultMap resultMap;
+
+    private final Class<?> type;
+
+    private final ObjectFactory objectFactory;
+
+    private final MethodHandle constructor;
+
+    /**
+     * 与列结构无关的映射（数字、已注册类型），为 null 时按列结构生成计划
+     */
+    private final RowMappingPlan scalarPlan;
+
+    private final Map<String, PropertySetter> setters = new ConcurrentHashMap<>();
+
+    private volatile MetaObject template;
+
+    private volatile List<NestedSelect> nestedSelects;
+
+    public CompiledRowMapper(R2dbcConfiguration configuration, ResultMap resultMap) {
+        this.configuration = configuration;
+        this.resultMap = resultMap;
+        this.type = resultMap.getType();
+        this.objectFactory = configuration.getObjectFactory();
+        this.constructor = findConstructor(type, objectFactory);
+        this.scalarPlan = compileScalarPlan();
+    }
+
+    public ResultMap getResultMap() {
+        return resultMap;
+    }
+
+    public Object newInstance() {
+        if (constructor == null) {
+            return objectFactory.create(type);
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new ReflectionException("Error instantiating " + type + ". Cause: " + t, t);
+        }
+    }
+
+    /**
+     * @return 是否含 association/collection 嵌套 ResultMap，含时每行映射出 {@link ResultNode}，需要用 {@link NestedResults} 合并
+     */
+    public boolean hasNestedResultMaps() {
+        return resultMap.hasNestedResultMaps();
+    }
+
+    /**
+     * @return select= 的嵌套查询映射，由会话在映射之后按批执行
+     */
+    public List<NestedSelect> getNestedSelects() {
+        if (nestedSelects == null) {
+            nestedSelects = NestedSelect.forResultMap(configuration, this);
+        }
+        return nestedSelects;
+    }
+
+    public PropertySetter getSetter(String property) {
+        PropertySetter setter = setters.get(property);
+        if (setter == null) {
+            setter = PropertySetters.forProperty(configuration, getTemplate(), property);
+            setters.putIfAbsent(property, setter);
+        }
+        return setter;
+    }
+
+    public Class<?> getSetterType(String property) {
+        return getTemplate().getSetterType(property);
+    }
+
+    /**
+     * 单行映射，每次都会查一次计划缓存；批量读取请用 {@link #forResult()}
+     */
+    public Object map(Row row, RowMetadata rowMetadata) {
+        Object result = plan(rowMetadata).map(row, rowMetadata);
+        return result instanceof ResultNode ? NestedResults.single((ResultNode) result) : result;
+    }
+
+    /**
+     * 为一个 Result 创建映射函数，计划在第一行时确定，之后的行直接复用
+     */
+    @SuppressWarnings("unchecked")
+    public <T> BiFunction<Row, RowMetadata, T> forResult() {
+        if (scalarPlan != null) {
+            return (row, rowMetadata) -> (T) scalarPlan.map(row, rowMetadata);
+        }
+        return new BiFunction<Row, RowMetadata, T>() {
+            private RowMappingPlan plan;
+
+            @Override
+            public T apply(Row row, RowMetadata rowMetadata) {
+                if (plan == null) {
+                    plan = plan(rowMetadata);
+                }
+                return (T) plan.map(row, rowMetadata);
+            }
+        };
+    }
+
+    public RowMappingPlan plan(RowMetadata rowMetadata) {
+        if (scalarPlan != null) {
+            return scalarPlan;
+        }
+        return configuration.getRowMappingPlanCache().getPlan(this, rowMetadata);
+    }
+
+    RowMappingPlan compilePlan(String[] columns) {
+        if (hasNestedResultMaps()) {
+            return new NestedResultPlan(configuration, this, columns);
+        }
+        return compileFlatPlan(columns);
+    }
+
+    /**
+     * 只映射本层属性的计划，嵌套的 association/collection 由 {@link NestedResultPlan} 处理
+     */
+    RowMappingPlan compileFlatPlan(String[] columns) {
+        if (type.isAssignableFrom(Map.class)) {
+            return (row, rowMetadata) -> {
+                Map<String, Object> result = new HashMap<>(columns.length * 4 / 3 + 1);
+                for (int i = 0; i < columns.length; i++) {
+                    result.put(columns[i], row.get(i));
+                }
+                return result;
+            };
+        } else if (type.isAssignableFrom(Collection.class)) {
+            return (row, rowMetadata) -> {
+                List<Object> result = new ArrayList<>(columns.length);
+                for (int i = 0; i < columns.length; i++) {
+                    result.add(row.get(i));
+                }
+                return result;
+            };
+        }
+        List<ColumnMapping> mappings = resultMap.getResultMappings().isEmpty()
+                ? compileAutoMappings(columns) : compileExplicitMappings(columns);
+        return new BeanMappingPlan(this, mappings.toArray(new ColumnMapping[0]));
+    }
+
+    private List<ColumnMapping> compileExplicitMappings(String[] columns) {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            columnIndexes.putIfAbsent(columns[i].toUpperCase(Locale.ENGLISH), i);
+        }
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getR2dbcTypeHandlerRegistry();
+        List<ColumnMapping> mappings = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+            if (resultMapping.getColumn() == null || resultMapping.getNestedResultMapId() != null
+                    || resultMapping.getNestedQueryId() != null) {
+                continue;
+            }
+            Integer index = columnIndexes.get(resultMapping.getColumn().toUpperCase(Locale.ENGLISH));
+            if (index == null) {
+                continue;
+            }
+            Class<?> javaType = resultMapping.getJavaType();
+            TypeHandler<?> typeHandler = resultMapping.getTypeHandler();
+            R2DBCTypeHandler<?> r2dbcTypeHandler;
+            if (typeHandler instanceof R2DBCTypeHandler) {
+                r2dbcTypeHandler = (R2DBCTypeHandler<?>) typeHandler;
+            } else if (typeHandlerRegistry.hasTypeHandler(javaType)) {
+                r2dbcTypeHandler = typeHandlerRegistry.getTypeHandler(javaType);
+            } else {
+                r2dbcTypeHandler = new DefaultTypeHandler<>(boxed(javaType));
+            }
+            mappings.add(new ColumnMapping(index, getSetter(resultMapping.getProperty()), r2dbcTypeHandler, true));
+        }
+        return mappings;
+    }
+
+    private List<ColumnMapping> compileAutoMappings(String[] columns) {
+        MetaObject template = getTemplate();
+        TypeHandlerRegistry typeHandlerRegistry = configuration.getR2dbcTypeHandlerRegistry();
+        Set<String> mappedColumns = resultMap.getMappedColumns();
+        List<ColumnMapping> mappings = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            String columnName = columns[i];
+            if (mappedColumns.contains(columnName.toUpperCase(Locale.ENGLISH))) {
+                continue;
+            }
+            final String property = template.findProperty(columnName, configuration.isMapUnderscoreToCamelCase());
+            if (property != null && template.hasSetter(property)) {
+                if (resultMap.getMappedProperties().contains(property)) {
+                    continue;
+                }
+                final Class<?> propertyType = template.getSetterType(property);
+                R2DBCTypeHandler<?> typeHandler = typeHandlerRegistry.hasTypeHandler(propertyType)
+                        ? typeHandlerRegistry.getTypeHandler(propertyType) : new DefaultTypeHandler<>(boxed(propertyType));
+                boolean setNulls = configuration.isCallSettersOnNulls() && !propertyType.isPrimitive();
+                mappings.add(new ColumnMapping(i, getSetter(property), typeHandler, setNulls));
+            }
+        }
+        if (mappings.isEmpty()) {
+            for (int i = 0; i < columns.length; i++) {
+                mappings.add(new ColumnMapping(i, getSetter(columns[i]), new DefaultTypeHandler<>(Object.class), true));
+            }
+        }
+        return mappings;
+    }
+
+    private RowMappingPlan compileScalarPlan() {
+        if (NUMBER_TYPES.contains(type)) {
+            return (row, rowMetadata) -> {
+                Number columnValue = (Number) row.get(0);
+                if (columnValue == null) {
+                    return null;
+                }
+                if (type.equals(columnValue.getClass())) {
+                    return columnValue;
+                } else if (type.equals(Byte.class) || type.equals(byte.class)) {
+                    return columnValue.byteValue();
+                } else if (type.equals(Short.class) || type.equals(short.class)) {
+                    return columnValue.shortValue();
+                } else if (type.equals(Integer.class) || type.equals(int.class)) {
+                    return columnValue.intValue();
+                } else if (type.equals(Long.class) || type.equals(long.class)) {
+                    return columnValue.longValue();
+                } else if (type.equals(Float.class) || type.equals(float.class)) {
+                    return columnValue.floatValue();
+                } else if (type.equals(Double.class) || type.equals(double.class)) {
+                    return columnValue.doubleValue();
+                } else {
+                    return columnValue;
+                }
+            };
+        } else if (configuration.getR2dbcTypeHandlerRegistry().hasTypeHandler(type)) {
+            R2DBCTypeHandler<?> mappingTypeHandler = configuration.getR2dbcTypeHandlerRegistry().getTypeHandler(type);
+            return (row, rowMetadata) -> mappingTypeHandler.getResult(row, 0, rowMetadata);
+        }
+        return null;
+    }
+
+    private MetaObject getTemplate() {
+        if (template == null) {
+            template = configuration.newMetaObject(newInstance());
+        }
+        return template;
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return type;
+    }
+
+    private static MethodHandle findConstructor(Class<?> type, ObjectFactory objectFactory) {
+        // 自定义 ObjectFactory 或接口/抽象类型仍交给 ObjectFactory
+        if (objectFactory.getClass() != DefaultObjectFactory.class || type.isInterface()
+                || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static class BeanMappingPlan implements RowMappingPlan {
+
+        private final CompiledRowMapper rowMapper;
+
+        private final ColumnMapping[] mappings;
+
+        BeanMappingPlan(CompiledRowMapper rowMapper, ColumnMapping[] mappings) {
+            this.rowMapper = rowMapper;
+            this.mappings = mappings;
+        }
+
+        @Override
+        public Object map(Row row, RowMetadata rowMetadata) {
+            Object object = rowMapper.newInstance();
+            for (ColumnMapping mapping : mappings) {
+                Object value = mapping.typeHandler.getResult(row, mapping.index, rowMetadata);
+                if (value != null || mapping.setNulls) {
+                    mapping.setter.set(object, value);
+                }
+            }
+            return object;
+        }
+    }
+
+    private static class ColumnMapping {
+
+        private final int index;
+
+        private final PropertySetter setter;
+
+        private final R2DBCTypeHandler<?> typeHandler;
+
+        private final boolean setNulls;
+
+        ColumnMapping(int index, PropertySetter setter, R2DBCTypeHandler<?> typeHandler, boolean setNulls) {
+            this.index = index;
+            this.setter = setter;
+            this.typeHandler = typeHandler;
+            this.setNulls = setNulls;
+        }
+    }
+}
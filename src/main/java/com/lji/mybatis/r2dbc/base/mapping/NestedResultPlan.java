@@ -0,0 +1,265 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 含 association/collection 嵌套 ResultMap（join 查询）的映射计划：每行映射成一个 {@link ResultNode}，
+ * 本层属性用普通计划映射，分组 key 取 id 列（没有 id 映射时取全部属性列），子结果按 columnPrefix 从同一行映射；
+ * 子结果的 key 列全为 null（left join 没有匹配）时视为没有子结果
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+final class NestedResultPlan implements RowMappingPlan {
+
+    /**
+     * 不带本层前缀的列在视图中的占位名，不会与任何属性或列名匹配
+     */
+    private static final String NO_COLUMN = "\u0000";
+
+    private final CompiledRowMapper rowMapper;
+
+    private final RowMappingPlan flatPlan;
+
+    private final int[] keyIndexes;
+
+    private final boolean root;
+
+    private final NestedProperty[] properties;
+
+    NestedResultPlan(R2dbcConfiguration configuration, CompiledRowMapper rowMapper, String[] columns) {
+        this(configuration, rowMapper, columns, null, true, new HashSet<>());
+    }
+
+    private NestedResultPlan(R2dbcConfiguration configuration, CompiledRowMapper rowMapper, String[] columns, String columnPrefix,
+                             boolean root, Set<String> ancestors) {
+        this.rowMapper = rowMapper;
+        this.root = root;
+        String[] view = prefixedView(columns, columnPrefix);
+        this.flatPlan = rowMapper.compileFlatPlan(view);
+        this.keyIndexes = keyIndexes(rowMapper.getResultMap(), view);
+        ResultMap resultMap = rowMapper.getResultMap();
+        String self = resultMap.getId() + '#' + columnPrefix;
+        ancestors.add(self);
+        List<NestedProperty> nested = new ArrayList<>();
+        for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
+            if (resultMapping.getNestedResultMapId() == null || resultMapping.getNestedQueryId() != null
+                    || resultMapping.getResultSet() != null) {
+                continue;
+            }
+            String prefix = concat(columnPrefix, resultMapping.getColumnPrefix());
+            ResultMap nestedResultMap = configuration.getResultMap(resultMapping.getNestedResultMapId());
+            if (ancestors.contains(nestedResultMap.getId() + '#' + prefix)) {
+                // 引用自身且前缀不变的映射会无限展开，与 MyBatis 一样只映射一层
+                continue;
+            }
+            NestedResultPlan plan = new NestedResultPlan(configuration, configuration.getRowMapper(nestedResultMap), columns, prefix,
+                    false, ancestors);
+            String property = resultMapping.getProperty();
+            Class<?> propertyType = rowMapper.getSetterType(property);
+            boolean collection = Collection.class.isAssignableFrom(propertyType);
+            nested.add(new NestedProperty(rowMapper.getSetter(property), collection ? propertyType : null, plan, configuration));
+        }
+        ancestors.remove(self);
+        this.properties = nested.toArray(new NestedProperty[0]);
+    }
+
+    @Override
+    public Object map(Row row, RowMetadata rowMetadata) {
+        return mapNode(row, rowMetadata);
+    }
+
+    private ResultNode mapNode(Row row, RowMetadata rowMetadata) {
+        Object key = readKey(row);
+        if (key == null) {
+            if (!root) {
+                return null;
+            }
+            // 根对象没有可用的 key 时每行单独成组
+            key = new Object();
+        }
+        Object value = flatPlan.map(row, rowMetadata);
+        ResultNode[] children = new ResultNode[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            children[i] = properties[i].plan.mapNode(row, rowMetadata);
+        }
+        return new ResultNode(this, key, value, children);
+    }
+
+    private Object readKey(Row row) {
+        if (keyIndexes.length == 1) {
+            return row.get(keyIndexes[0]);
+        }
+        Object[] values = new Object[keyIndexes.length];
+        boolean present = false;
+        for (int i = 0; i < keyIndexes.length; i++) {
+            values[i] = row.get(keyIndexes[i]);
+            present |= values[i] != null;
+        }
+        return present ? Arrays.asList(values) : null;
+    }
+
+    /**
+     * 分组开始：把这一行的子结果挂到对象上，集合属性即使没有子结果也设置为空集合
+     */
+    void attach(ResultNode node) {
+        node.state = new Object[properties.length];
+        for (int i = 0; i < properties.length; i++) {
+            NestedProperty property = properties[i];
+            ResultNode child = node.children[i];
+            if (property.collectionType != null) {
+                CollectionState collection = new CollectionState(property.newCollection());
+                property.setter.set(node.value, collection.values);
+                node.state[i] = collection;
+                if (child != null) {
+                    property.plan.attach(child);
+                    collection.add(child);
+                }
+            } else if (child != null) {
+                property.plan.attach(child);
+                property.setter.set(node.value, child.value);
+                node.state[i] = child;
+            }
+        }
+    }
+
+    /**
+     * 同一分组的后续行：已有的子结果（按子 key）继续向下合并，新的子结果追加
+     */
+    void merge(ResultNode target, ResultNode incoming) {
+        for (int i = 0; i < properties.length; i++) {
+            NestedProperty property = properties[i];
+            ResultNode child = incoming.children[i];
+            if (child == null) {
+                continue;
+            }
+            if (property.collectionType != null) {
+                CollectionState collection = (CollectionState) target.state[i];
+                ResultNode existing = collection.nodes.get(child.key);
+                if (existing == null) {
+                    property.plan.attach(child);
+                    collection.add(child);
+                } else {
+                    property.plan.merge(existing, child);
+                }
+            } else {
+                ResultNode existing = (ResultNode) target.state[i];
+                if (existing == null) {
+                    property.plan.attach(child);
+                    property.setter.set(target.value, child.value);
+                    target.state[i] = child;
+                } else {
+                    property.plan.merge(existing, child);
+                }
+            }
+        }
+    }
+
+    private static String[] prefixedView(String[] columns, String columnPrefix) {
+        if (columnPrefix == null) {
+            return columns;
+        }
+        String prefix = columnPrefix.toUpperCase(Locale.ENGLISH);
+        String[] view = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            view[i] = columns[i].toUpperCase(Locale.ENGLISH).startsWith(prefix) ? columns[i].substring(prefix.length()) : NO_COLUMN;
+        }
+        return view;
+    }
+
+    private static int[] keyIndexes(ResultMap resultMap, String[] view) {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < view.length; i++) {
+            columnIndexes.putIfAbsent(view[i].toUpperCase(Locale.ENGLISH), i);
+        }
+        List<ResultMapping> keyMappings = resultMap.getIdResultMappings().isEmpty()
+                ? resultMap.getPropertyResultMappings() : resultMap.getIdResultMappings();
+        List<Integer> indexes = new ArrayList<>();
+        for (ResultMapping resultMapping : keyMappings) {
+            if (resultMapping.getColumn() == null || resultMapping.getNestedResultMapId() != null
+                    || resultMapping.getNestedQueryId() != null) {
+                continue;
+            }
+            Integer index = columnIndexes.get(resultMapping.getColumn().toUpperCase(Locale.ENGLISH));
+            if (index != null) {
+                indexes.add(index);
+            }
+        }
+        if (indexes.isEmpty()) {
+            // 自动映射的结果没有声明列，取本层的全部列
+            for (int i = 0; i < view.length; i++) {
+                if (!NO_COLUMN.equals(view[i])) {
+                    indexes.add(i);
+                }
+            }
+        }
+        int[] result = new int[indexes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = indexes.get(i);
+        }
+        return result;
+    }
+
+    private static String concat(String prefix, String nestedPrefix) {
+        if (prefix == null) {
+            return nestedPrefix;
+        }
+        return nestedPrefix == null ? prefix : prefix + nestedPrefix;
+    }
+
+    private static final class NestedProperty {
+
+        private final PropertySetter setter;
+
+        /**
+         * 集合属性的声明类型，association 为 null
+         */
+        private final Class<?> collectionType;
+
+        private final NestedResultPlan plan;
+
+        private final R2dbcConfiguration configuration;
+
+        NestedProperty(PropertySetter setter, Class<?> collectionType, NestedResultPlan plan, R2dbcConfiguration configuration) {
+            this.setter = setter;
+            this.collectionType = collectionType;
+            this.plan = plan;
+            this.configuration = configuration;
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<Object> newCollection() {
+            return (Collection<Object>) configuration.getObjectFactory().create(collectionType);
+        }
+    }
+
+    private static final class CollectionState {
+
+        private final Collection<Object> values;
+
+        private final Map<Object, ResultNode> nodes = new HashMap<>();
+
+        CollectionState(Collection<Object> values) {
+            this.values = values;
+        }
+
+        void add(ResultNode node) {
+            nodes.put(node.key, node);
+            values.add(node.value);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把嵌套 ResultMap 逐行映射出的 {@link ResultNode} 合并成父对象：
+ * bufferSize 为 1 时要求同一父对象的行相邻（按父 id 排序），key 变化即输出上一个父对象，内存只占一个分组；
+ * 大于 1 时最多同时保留 bufferSize 个未完成的父对象，超出时输出最早的一个，之后再出现的同 key 行会成为新的父对象
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class NestedResults {
+
+    private NestedResults() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Flux<T> merge(Flux<?> nodes, int bufferSize) {
+        return Flux.defer(() -> {
+            Grouper grouper = bufferSize <= 1 ? new ConsecutiveGrouper() : new BufferedGrouper(bufferSize);
+            Flux<Object> merged = nodes.handle((node, sink) -> {
+                Object completed = grouper.add((ResultNode) node);
+                if (completed != null) {
+                    sink.next(completed);
+                }
+            });
+            return (Flux<T>) merged.concatWith(Flux.defer(() -> Flux.fromIterable(grouper.drain())));
+        });
+    }
+
+    /**
+     * 单行的映射结果
+     */
+    public static Object single(ResultNode node) {
+        node.plan.attach(node);
+        return node.value;
+    }
+
+    private interface Grouper {
+
+        /**
+         * @return 因这一行而完成的父对象，没有时为 null
+         */
+        Object add(ResultNode node);
+
+        List<Object> drain();
+    }
+
+    private static final class ConsecutiveGrouper implements Grouper {
+
+        private ResultNode current;
+
+        @Override
+        public Object add(ResultNode node) {
+            if (current != null && current.key.equals(node.key)) {
+                current.plan.merge(current, node);
+                return null;
+            }
+            ResultNode completed = current;
+            node.plan.attach(node);
+            current = node;
+            return completed == null ? null : completed.value;
+        }
+
+        @Override
+        public List<Object> drain() {
+            List<Object> rest = new ArrayList<>(1);
+            if (current != null) {
+                rest.add(current.value);
+                current = null;
+            }
+            return rest;
+        }
+    }
+
+    private static final class BufferedGrouper implements Grouper {
+
+        private final int bufferSize;
+
+        private final Map<Object, ResultNode> open = new LinkedHashMap<>();
+
+        BufferedGrouper(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        @Override
+        public Object add(ResultNode node) {
+            ResultNode existing = open.get(node.key);
+            if (existing != null) {
+                existing.plan.merge(existing, node);
+                return null;
+            }
+            node.plan.attach(node);
+            open.put(node.key, node);
+            if (open.size() <= bufferSize) {
+                return null;
+            }
+            Iterator<ResultNode> eldest = open.values().iterator();
+            Object completed = eldest.next().value;
+            eldest.remove();
+            return completed;
+        }
+
+        @Override
+        public List<Object> drain() {
+            List<Object> rest = new ArrayList<>(open.size());
+            for (ResultNode node : open.values()) {
+                rest.add(node.value);
+            }
+            open.clear();
+            return rest;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+/**
+ * 属性写入
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface PropertySetter {
+
+    void set(Object target, Object value);
+}
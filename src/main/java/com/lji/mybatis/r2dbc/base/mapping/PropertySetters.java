@@ -0,0 +1,103 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 属性写入的解析：能直接定位 setter/字段时编译成 MethodHandle，其余情况（嵌套属性等）退回 MetaObject
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class PropertySetters {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private PropertySetters() {
+    }
+
+    /**
+     * @param template 目标类型的 MetaObject，只用于解析属性和 setter 类型
+     */
+    @SuppressWarnings("unchecked")
+    public static PropertySetter forProperty(Configuration configuration, MetaObject template, String property) {
+        Object target = template.getOriginalObject();
+        if (target instanceof Map) {
+            return (object, value) -> ((Map<String, Object>) object).put(property, value);
+        }
+        if (property.indexOf('.') < 0 && property.indexOf('[') < 0 && template.hasSetter(property)) {
+            Class<?> setterType = template.getSetterType(property);
+            MethodHandle handle = findSetterHandle(target.getClass(), property, setterType);
+            if (handle != null) {
+                return new MethodHandleSetter(property, handle, setterType.isPrimitive());
+            }
+        }
+        return (object, value) -> configuration.newMetaObject(object).setValue(property, value);
+    }
+
+    private static MethodHandle findSetterHandle(Class<?> type, String property, Class<?> setterType) {
+        String setterName = "set" + property.substring(0, 1).toUpperCase(Locale.ENGLISH) + property.substring(1);
+        try {
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (method.getName().equals(setterName) && method.getParameterCount() == 1
+                            && !Modifier.isStatic(method.getModifiers())
+                            && method.getParameterTypes()[0].isAssignableFrom(setterType)) {
+                        method.setAccessible(true);
+                        return MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+                    }
+                }
+            }
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (field.getName().equals(property) && !Modifier.isStatic(field.getModifiers())
+                            && !Modifier.isFinal(field.getModifiers())) {
+                        field.setAccessible(true);
+                        return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+                    }
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException ignore) {
+            // 模块或安全策略不允许时退回 MetaObject
+        }
+        return null;
+    }
+
+    private static class MethodHandleSetter implements PropertySetter {
+
+        private final String property;
+
+        private final MethodHandle handle;
+
+        private final boolean primitive;
+
+        MethodHandleSetter(String property, MethodHandle handle, boolean primitive) {
+            this.property = property;
+            this.handle = handle;
+            this.primitive = primitive;
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            if (value == null && primitive) {
+                return;
+            }
+            try {
+                handle.invokeExact(target, value);
+            } catch (Throwable t) {
+                throw new ReflectionException("Could not set property '" + property + "' of '" + target.getClass()
+                        + "' with value '" + value + "' Cause: " + t, t);
+            }
+        }
+    }
+}
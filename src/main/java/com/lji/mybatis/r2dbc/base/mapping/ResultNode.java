@@ -0,0 +1,39 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+/**
+ * 嵌套 ResultMap 单行的映射结果：本层对象、用于分组的 key，以及这一行里各个 association/collection 的子结果；
+ * 合并到同一个父对象时，state 记录已挂上的子结果，用于按子 key 去重和继续向下合并
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class ResultNode {
+
+    final NestedResultPlan plan;
+
+    final Object key;
+
+    final Object value;
+
+    final ResultNode[] children;
+
+    Object[] state;
+
+    ResultNode(NestedResultPlan plan, Object key, Object value, ResultNode[] children) {
+        this.plan = plan;
+        this.key = key;
+        this.value = value;
+        this.children = children;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return 本层对象，合并完成前子集合可能不完整
+     */
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,16 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+/**
+ * 某个 ResultMap 在某种列结构下的映射计划，列已解析为下标
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface RowMappingPlan {
+
+    Object map(Row row, RowMetadata rowMetadata);
+}
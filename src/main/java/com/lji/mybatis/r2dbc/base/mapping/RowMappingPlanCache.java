@@ -0,0 +1,117 @@
+package com.lji.mybatis.r2dbc.base.mapping;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.RowMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 映射计划缓存，按 (ResultMap id, 有序列名) 区分，LRU 淘汰
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class RowMappingPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Map<PlanKey, RowMappingPlan> plans;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public RowMappingPlanCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public RowMappingPlanCache(int maxSize) {
+        this.plans = new LinkedHashMap<PlanKey, RowMappingPlan>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PlanKey, RowMappingPlan> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public RowMappingPlan getPlan(CompiledRowMapper rowMapper, RowMetadata rowMetadata) {
+        List<String> columns = new ArrayList<>();
+        for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+            columns.add(columnMetadata.getName());
+        }
+        PlanKey key = new PlanKey(rowMapper.getResultMap().getId(), columns.toArray(new String[0]));
+        RowMappingPlan plan;
+        synchronized (plans) {
+            plan = plans.get(key);
+        }
+        if (plan != null) {
+            hits.increment();
+            return plan;
+        }
+        misses.increment();
+        plan = rowMapper.compilePlan(key.columns);
+        synchronized (plans) {
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (plans) {
+            return plans.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (plans) {
+            plans.clear();
+        }
+    }
+
+    private static class PlanKey {
+
+        private final String resultMapId;
+
+        private final String[] columns;
+
+        private final int hash;
+
+        PlanKey(String resultMapId, String[] columns) {
+            this.resultMapId = resultMapId;
+            this.columns = columns;
+            this.hash = 31 * resultMapId.hashCode() + Arrays.hashCode(columns);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return hash == other.hash && resultMapId.equals(other.resultMapId) && Arrays.equals(columns, other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
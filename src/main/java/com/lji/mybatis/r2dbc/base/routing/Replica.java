@@ -0,0 +1,109 @@
+package com.lji.mybatis.r2dbc.base.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一个只读副本及其状态：占用中的连接数、连续失败次数、摘除到期时间。
+ * 摘除到期后只放行一个请求试探，放行时把到期时间推后一个摘除时长，试探成功恢复，失败重新摘除；
+ * 试探没有结果（取消、SQL 本身的错误）时，下一次到期再放行一个
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class Replica {
+
+    private final String name;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final AtomicLong ejectedUntilNanos = new AtomicLong();
+
+    private volatile boolean ejected;
+
+    Replica(String name, ConnectionFactory connectionFactory) {
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    /**
+     * @return 当前从该副本获取、尚未释放的连接数
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    public boolean isEjected() {
+        return ejected && System.nanoTime() - ejectedUntilNanos.get() < 0;
+    }
+
+    /**
+     * @return 没有被摘除
+     */
+    boolean isAvailable() {
+        return !ejected;
+    }
+
+    /**
+     * 摘除已到期时争取这一次试探，同一时刻只有一个调用成功
+     */
+    boolean tryProbe(long now, long ejectNanos) {
+        if (!ejected) {
+            return false;
+        }
+        long until = ejectedUntilNanos.get();
+        return now - until >= 0 && ejectedUntilNanos.compareAndSet(until, now + ejectNanos);
+    }
+
+    void acquired() {
+        pending.incrementAndGet();
+    }
+
+    void released() {
+        pending.decrementAndGet();
+    }
+
+    void succeeded() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+        ejected = false;
+    }
+
+    /**
+     * @return 本次失败是否导致摘除
+     */
+    boolean failed(int ejectAfterFailures, long ejectNanos) {
+        if (consecutiveFailures.incrementAndGet() < ejectAfterFailures) {
+            return false;
+        }
+        // 到期后放回一个请求试探，再失败立即重新摘除
+        consecutiveFailures.set(ejectAfterFailures - 1);
+        ejectedUntilNanos.set(System.nanoTime() + ejectNanos);
+        ejected = true;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
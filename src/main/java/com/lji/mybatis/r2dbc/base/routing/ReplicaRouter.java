@@ -0,0 +1,147 @@
+package com.lji.mybatis.r2dbc.base.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 只读副本的选择与摘除：不在事务中的 SELECT 由会话交给这里选一个副本，写语句和事务始终走主库；
+ * 获取连接失败或连接层面的错误（资源、超时类异常）连续达到次数后摘除一段时间，SQL 本身的错误不计入；
+ * 没有可用副本时返回 null，由会话退回主库
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class ReplicaRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    public static final int DEFAULT_EJECT_AFTER_FAILURES = 3;
+
+    public static final Duration DEFAULT_EJECT_DURATION = Duration.ofSeconds(30);
+
+    private final Replica[] replicas;
+
+    private final ReplicaSelection selection;
+
+    private final int ejectAfterFailures;
+
+    private final long ejectNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRouter(List<ConnectionFactory> replicas) {
+        this(replicas, ReplicaSelection.ROUND_ROBIN, DEFAULT_EJECT_AFTER_FAILURES, DEFAULT_EJECT_DURATION);
+    }
+
+    public ReplicaRouter(List<ConnectionFactory> replicas, ReplicaSelection selection, int ejectAfterFailures,
+                         Duration ejectDuration) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("replicas cannot be empty");
+        }
+        if (ejectAfterFailures <= 0) {
+            throw new IllegalArgumentException("ejectAfterFailures must be positive: " + ejectAfterFailures);
+        }
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = new Replica("replica-" + i, replicas.get(i));
+        }
+        this.selection = selection;
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectNanos = ejectDuration.toNanos();
+    }
+
+    /**
+     * 摘除到期的副本优先交出唯一的一次试探
+     *
+     * @return 选中的副本，都被摘除时返回 null
+     */
+    public Replica select() {
+        long now = System.nanoTime();
+        if (selection == ReplicaSelection.LEAST_PENDING) {
+            Replica selected = null;
+            for (Replica replica : replicas) {
+                if (replica.isAvailable()) {
+                    if (selected == null || replica.getPending() < selected.getPending()) {
+                        selected = replica;
+                    }
+                } else if (replica.tryProbe(now, ejectNanos)) {
+                    return replica;
+                }
+            }
+            return selected;
+        }
+        int start = next.getAndIncrement() & Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.isAvailable() || replica.tryProbe(now, ejectNanos)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public void acquired(Replica replica) {
+        replica.acquired();
+    }
+
+    public void released(Replica replica) {
+        replica.released();
+    }
+
+    public void succeeded(Replica replica) {
+        replica.succeeded();
+    }
+
+    /**
+     * @param acquire 是否是获取连接时的失败
+     */
+    public void failed(Replica replica, Throwable error, boolean acquire) {
+        if (!acquire && !isConnectionError(error)) {
+            return;
+        }
+        if (replica.failed(ejectAfterFailures, ejectNanos)) {
+            logger.warn("Ejected {} for {}ms after {} consecutive failures: {}", replica, ejectNanos / 1_000_000,
+                    ejectAfterFailures, String.valueOf(error));
+        }
+    }
+
+    private static boolean isConnectionError(Throwable error) {
+        return error instanceof R2dbcNonTransientResourceException || error instanceof R2dbcTransientResourceException
+                || error instanceof R2dbcTimeoutException;
+    }
+
+    public List<Replica> getReplicas() {
+        List<Replica> list = new ArrayList<>(replicas.length);
+        Collections.addAll(list, replicas);
+        return Collections.unmodifiableList(list);
+    }
+
+    public ReplicaSelection getSelection() {
+        return selection;
+    }
+
+    /**
+     * 释放副本的连接池
+     */
+    public void dispose() {
+        for (Replica replica : replicas) {
+            if (replica.getConnectionFactory() instanceof Disposable) {
+                Disposable disposable = (Disposable) replica.getConnectionFactory();
+                if (!disposable.isDisposed()) {
+                    disposable.dispose();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.lji.mybatis.r2dbc.base.routing;
+
+/**
+ * 从可用的只读副本中选择一个的方式
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public enum ReplicaSelection {
+
+    /**
+     * 依次轮流
+     */
+    ROUND_ROBIN,
+
+    /**
+     * 选当前占用连接最少的副本，相同时取靠前的
+     */
+    LEAST_PENDING
+}
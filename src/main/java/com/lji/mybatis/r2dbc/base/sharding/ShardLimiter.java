@@ -0,0 +1,103 @@
+package com.lji.mybatis.r2dbc.base.sharding;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个分片的并发上限：拿不到许可的订阅排队等待，不阻塞线程；等待中取消的订阅不占许可
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+final class ShardLimiter {
+
+    private final int maxConcurrency;
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    ShardLimiter(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 所有订阅都先排队再由 drain 按顺序交出许可；交出许可与订阅取消同时发生时，
+     * 取消先到则 MonoSink 丢掉这个许可（不会发给订阅者），在取消回调里归还
+     */
+    Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> {
+                if (waiter.done.compareAndSet(false, true)) {
+                    waiters.remove(waiter);
+                } else {
+                    release();
+                }
+            });
+            waiters.offer(waiter);
+            drain();
+        });
+    }
+
+    void release() {
+        active.decrementAndGet();
+        drain();
+    }
+
+    int getActive() {
+        return active.get();
+    }
+
+    int getWaiting() {
+        return waiters.size();
+    }
+
+    private boolean tryAcquire() {
+        for (; ; ) {
+            int current = active.get();
+            if (current >= maxConcurrency) {
+                return false;
+            }
+            if (active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 先拿许可再取等待者，取到已取消的等待者时继续取下一个，没有等待者时归还许可
+     */
+    private void drain() {
+        while (!waiters.isEmpty() && tryAcquire()) {
+            Waiter waiter;
+            boolean handed = false;
+            while ((waiter = waiters.poll()) != null) {
+                if (waiter.done.compareAndSet(false, true)) {
+                    waiter.sink.success(Boolean.TRUE);
+                    handed = true;
+                    break;
+                }
+            }
+            if (!handed) {
+                active.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Boolean> sink;
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+    }
+}
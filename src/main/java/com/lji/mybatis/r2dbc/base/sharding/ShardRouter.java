@@ -0,0 +1,313 @@
+package com.lji.mybatis.r2dbc.base.sharding;
+
+import com.lji.mybatis.r2dbc.base.statement.PropertyGetters;
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 水平分片：声明为分片的语句（语句 id 或 namespace）按参数中的分片键属性路由到单个分片；
+ * 取不到分片键的查询由会话并行发到所有分片后合并（声明了合并排序时按排序做多路归并，否则按到达顺序），
+ * 取不到分片键的 update/delete 发到所有分片后累加更新行数。每个分片有独立的并发上限。
+ * 分片上的语句不参与会话事务
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class ShardRouter {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+    public static final String DEFAULT_KEY_PROPERTY = "shardKey";
+
+    /**
+     * 不在分片上执行（走主库）
+     */
+    public static final int NO_SHARD = -1;
+
+    /**
+     * 需要发到所有分片
+     */
+    public static final int ALL_SHARDS = -2;
+
+    private final Configuration configuration;
+
+    private final List<ConnectionFactory> shards;
+
+    private final ShardLimiter[] limiters;
+
+    private final ShardingStrategy strategy;
+
+    private final String defaultKeyProperty;
+
+    private final Set<String> shardedStatements = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, String> keyProperties = new ConcurrentHashMap<>();
+
+    private final Map<String, String> mergeOrders = new ConcurrentHashMap<>();
+
+    /**
+     * 语句 id 到分片规则的解析结果，配置变化时清空
+     */
+    private final Map<String, ShardRule> rules = new ConcurrentHashMap<>();
+
+    public ShardRouter(Configuration configuration, List<ConnectionFactory> shards) {
+        this(configuration, shards, ShardingStrategy.MODULO, DEFAULT_KEY_PROPERTY, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public ShardRouter(Configuration configuration, List<ConnectionFactory> shards, ShardingStrategy strategy,
+                       String defaultKeyProperty, int maxConcurrencyPerShard) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("shards cannot be empty");
+        }
+        if (maxConcurrencyPerShard <= 0) {
+            throw new IllegalArgumentException("maxConcurrencyPerShard must be positive: " + maxConcurrencyPerShard);
+        }
+        this.configuration = configuration;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.limiters = new ShardLimiter[shards.size()];
+        for (int i = 0; i < limiters.length; i++) {
+            limiters[i] = new ShardLimiter(maxConcurrencyPerShard);
+        }
+        this.strategy = strategy;
+        this.defaultKeyProperty = defaultKeyProperty;
+    }
+
+    /**
+     * @param statementIdOrNamespace 语句 id 或 namespace，namespace 下的所有语句都是分片语句
+     */
+    public void addShardedStatement(String statementIdOrNamespace) {
+        shardedStatements.add(statementIdOrNamespace);
+        rules.clear();
+    }
+
+    /**
+     * 单独设置分片键属性，未设置的用默认属性
+     */
+    public void setKeyProperty(String statementIdOrNamespace, String keyProperty) {
+        keyProperties.put(statementIdOrNamespace, keyProperty);
+        rules.clear();
+    }
+
+    /**
+     * 发到所有分片的查询按此排序做多路归并，各分片的 SQL 需要按相同顺序排序
+     *
+     * @param orderBy 结果对象的属性，逗号分隔，可带 asc/desc，如 "createTime desc, id"
+     */
+    public void setMergeOrder(String statementIdOrNamespace, String orderBy) {
+        mergeOrders.put(statementIdOrNamespace, orderBy);
+        rules.clear();
+    }
+
+    public boolean isSharded(String statementId) {
+        return getRule(statementId).sharded;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public ConnectionFactory getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public List<ConnectionFactory> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return 分片下标；不是分片语句时为 {@link #NO_SHARD}，取不到分片键时为 {@link #ALL_SHARDS}
+     */
+    public int resolveShard(MappedStatement mappedStatement, Object parameter) {
+        ShardRule rule = getRule(mappedStatement.getId());
+        if (!rule.sharded) {
+            return NO_SHARD;
+        }
+        Object key = readKey(mappedStatement, parameter, rule);
+        if (key == null || key instanceof Iterable || key.getClass().isArray()) {
+            return ALL_SHARDS;
+        }
+        int shard = strategy.shard(key, shards.size());
+        if (shard < 0 || shard >= shards.size()) {
+            throw new IllegalStateException("Sharding strategy returned " + shard + " for " + shards.size() + " shards");
+        }
+        return shard;
+    }
+
+    /**
+     * @return 多路归并的排序，没有声明时为 null
+     */
+    public Comparator<Object> getMergeOrder(String statementId) {
+        return getRule(statementId).mergeOrder;
+    }
+
+    /**
+     * 在分片的并发上限内执行，超出的订阅等待前面的执行结束。
+     * 不用 usingWhen：它在许可到达与取消同时发生时可能既不执行 source 也不归还许可；
+     * flatMapMany 拿到许可后总会订阅 source，已取消时立即取消它，doFinally 都会归还
+     */
+    public <T> Flux<T> limit(int shard, Flux<T> source) {
+        ShardLimiter limiter = limiters[shard];
+        return limiter.acquire().flatMapMany(permit -> source.doFinally(signal -> limiter.release()));
+    }
+
+    public <T> Mono<T> limit(int shard, Mono<T> source) {
+        return limit(shard, source.flux()).next();
+    }
+
+    /**
+     * @return 分片上正在执行的语句数
+     */
+    public int getActive(int shard) {
+        return limiters[shard].getActive();
+    }
+
+    /**
+     * @return 分片上等待并发许可的语句数
+     */
+    public int getWaiting(int shard) {
+        return limiters[shard].getWaiting();
+    }
+
+    /**
+     * 释放分片的连接池
+     */
+    public void dispose() {
+        for (ConnectionFactory shard : shards) {
+            if (shard instanceof Disposable && !((Disposable) shard).isDisposed()) {
+                ((Disposable) shard).dispose();
+            }
+        }
+    }
+
+    private Object readKey(MappedStatement mappedStatement, Object parameter, ShardRule rule) {
+        if (parameter == null) {
+            return null;
+        }
+        if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameter.getClass())) {
+            // 单个简单类型的参数只有在 SQL 引用了分片键属性时才是分片键；每条语句只在第一次渲染 SQL 判断，之后沿用
+            Boolean keyReferenced = rule.keyReferenced;
+            if (keyReferenced == null) {
+                keyReferenced = references(mappedStatement.getBoundSql(parameter).getParameterMappings(), rule.keyProperty);
+                rule.keyReferenced = keyReferenced;
+            }
+            return keyReferenced ? parameter : null;
+        }
+        MetaObject metaObject = configuration.newMetaObject(parameter);
+        return metaObject.hasGetter(rule.keyProperty) ? metaObject.getValue(rule.keyProperty) : null;
+    }
+
+    private static boolean references(List<ParameterMapping> parameterMappings, String keyProperty) {
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            if (keyProperty.equals(parameterMapping.getProperty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ShardRule getRule(String statementId) {
+        ShardRule rule = rules.get(statementId);
+        if (rule == null) {
+            rule = new ShardRule(lookup(shardedStatements, statementId) != null,
+                    valueOr(lookup(keyProperties, statementId), defaultKeyProperty),
+                    parseOrder(lookup(mergeOrders, statementId)));
+            rules.put(statementId, rule);
+        }
+        return rule;
+    }
+
+    private static <V> V valueOr(V value, V defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 语句 id 优先，其次是最长的 namespace 前缀
+     */
+    private static String lookup(Set<String> keys, String statementId) {
+        for (String key = statementId; ; ) {
+            if (keys.contains(key)) {
+                return key;
+            }
+            int dot = key.lastIndexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            key = key.substring(0, dot);
+        }
+    }
+
+    private static String lookup(Map<String, String> values, String statementId) {
+        String key = lookup(values.keySet(), statementId);
+        return key == null ? null : values.get(key);
+    }
+
+    private Comparator<Object> parseOrder(String orderBy) {
+        if (orderBy == null || orderBy.trim().isEmpty()) {
+            return null;
+        }
+        Comparator<Object> comparator = null;
+        for (String part : orderBy.split(",")) {
+            String[] tokens = part.trim().split("\\s+");
+            boolean descending = tokens.length > 1 && "desc".equals(tokens[1].toLowerCase(Locale.ROOT));
+            Comparator<Object> next = propertyComparator(tokens[0], descending);
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    /**
+     * null 视为最小（与 MySQL 一致），降序时排在最后
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Object> propertyComparator(String property, boolean descending) {
+        Comparator<Comparable> values = Comparator.nullsFirst(Comparator.naturalOrder());
+        if (descending) {
+            values = values.reversed();
+        }
+        Comparator<Comparable> order = values;
+        return (left, right) -> order.compare(readProperty(left, property), readProperty(right, property));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Comparable readProperty(Object target, String property) {
+        if (target == null) {
+            return null;
+        }
+        return (Comparable) PropertyGetters.forProperty(configuration, target.getClass(), property).get(target);
+    }
+
+    private static final class ShardRule {
+
+        private final boolean sharded;
+
+        private final String keyProperty;
+
+        private final Comparator<Object> mergeOrder;
+
+        /**
+         * 简单类型参数时 SQL 是否引用了分片键属性，第一次遇到时确定
+         */
+        private volatile Boolean keyReferenced;
+
+        ShardRule(boolean sharded, String keyProperty, Comparator<Object> mergeOrder) {
+            this.sharded = sharded;
+            this.keyProperty = keyProperty;
+            this.mergeOrder = mergeOrder;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.lji.mybatis.r2dbc.base.sharding;
+
+/**
+ * 分片键到分片下标的映射
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface ShardingStrategy {
+
+    /**
+     * 整数按值取模，其余按 hashCode 取模
+     */
+    ShardingStrategy MODULO = (key, shardCount) -> {
+        if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+            return (int) Math.floorMod(((Number) key).longValue(), (long) shardCount);
+        }
+        return Math.floorMod(key.hashCode(), shardCount);
+    };
+
+    /**
+     * @param key        分片键的值，不为 null
+     * @param shardCount 分片个数
+     * @return 0 ~ shardCount - 1
+     */
+    int shard(Object key, int shardCount);
+}
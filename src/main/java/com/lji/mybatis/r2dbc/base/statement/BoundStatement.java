@@ -0,0 +1,72 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import com.lji.mybatis.r2dbc.base.dialect.BindMarkers;
+import io.r2dbc.spi.Statement;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * 一次执行的语句：执行计划加参数；静态语句不生成 BoundSql，需要时（如缓存 key）才生成
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class BoundStatement {
+
+    private final MappedStatement mappedStatement;
+
+    private final StatementPlan plan;
+
+    private final Object parameter;
+
+    private BoundSql boundSql;
+
+    BoundStatement(MappedStatement mappedStatement, StatementPlan plan, Object parameter, BoundSql boundSql) {
+        this.mappedStatement = mappedStatement;
+        this.plan = plan;
+        this.parameter = parameter;
+        this.boundSql = boundSql;
+    }
+
+    public String getSql() {
+        return plan.getSql();
+    }
+
+    public String getSql(BindMarkers bindMarkers) {
+        return plan.getSql(bindMarkers);
+    }
+
+    public int getParameterCount() {
+        return plan.getParameterCount();
+    }
+
+    public StatementPlan getPlan() {
+        return plan;
+    }
+
+    public Object getParameter() {
+        return parameter;
+    }
+
+    public BoundSql getBoundSql() {
+        if (boundSql == null) {
+            boundSql = mappedStatement.getBoundSql(parameter);
+        }
+        return boundSql;
+    }
+
+    /**
+     * 绑定值估算的字节数
+     */
+    public long estimateSize() {
+        return plan.estimateSize(parameter, boundSql);
+    }
+
+    public void bind(Statement statement) {
+        bind(statement, 0);
+    }
+
+    public void bind(Statement statement, int offset) {
+        plan.bind(statement, parameter, boundSql, offset);
+    }
+}
@@ -0,0 +1,25 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import org.apache.ibatis.mapping.BoundSql;
+
+/**
+ * 从参数对象（或动态 SQL 的附加参数）中取出一个绑定值
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface ParameterAccessor {
+
+    /**
+     * @param boundSql 静态语句为 null
+     */
+    Object getValue(Object parameter, BoundSql boundSql);
+
+    /**
+     * 值为 null 且映射没有声明 javaType 时，用于 bindNull 的类型
+     */
+    default Class<?> getValueType(Object parameter, BoundSql boundSql) {
+        return Object.class;
+    }
+}
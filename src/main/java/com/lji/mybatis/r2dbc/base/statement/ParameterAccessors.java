@@ -0,0 +1,162 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+/**
+ * 参数取值方式
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class ParameterAccessors {
+
+    private ParameterAccessors() {
+    }
+
+    /**
+     * 动态 SQL 的附加参数（foreach 元素、bind 变量）
+     */
+    public static ParameterAccessor additional(String property) {
+        return (parameter, boundSql) -> boundSql.getAdditionalParameter(property);
+    }
+
+    /**
+     * 简单类型的参数本身就是值，否则按属性路径（a.b.c，含 @Param 的参数名）逐级读取；
+     * 每一级按实际类型编译成 getter 并缓存，带下标的路径退回 MetaObject
+     */
+    public static ParameterAccessor property(Configuration configuration, String property) {
+        if (property.indexOf('[') >= 0) {
+            return new MetaObjectAccessor(configuration, property);
+        }
+        String[] names = property.split("\\.");
+        PropertyStep[] steps = new PropertyStep[names.length];
+        for (int i = 0; i < names.length; i++) {
+            steps[i] = new PropertyStep(configuration, names[i]);
+        }
+        return new CompiledAccessor(configuration, property, steps);
+    }
+
+    private static class MetaObjectAccessor implements ParameterAccessor {
+
+        private final Configuration configuration;
+
+        private final TypeHandlerRegistry typeHandlerRegistry;
+
+        private final String property;
+
+        MetaObjectAccessor(Configuration configuration, String property) {
+            this.configuration = configuration;
+            this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+            this.property = property;
+        }
+
+        @Override
+        public Object getValue(Object parameter, BoundSql boundSql) {
+            if (parameter == null) {
+                return null;
+            }
+            if (typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
+                return parameter;
+            }
+            return configuration.newMetaObject(parameter).getValue(property);
+        }
+
+        @Override
+        public Class<?> getValueType(Object parameter, BoundSql boundSql) {
+            if (parameter == null || typeHandlerRegistry.hasTypeHandler(parameter.getClass())) {
+                return Object.class;
+            }
+            return configuration.newMetaObject(parameter).getGetterType(property);
+        }
+    }
+
+    /**
+     * 参数值为 null 时的类型推断仍沿用 MetaObject，只在 bindNull 且映射没有 javaType 时用到
+     */
+    private static class CompiledAccessor extends MetaObjectAccessor {
+
+        private final PropertyStep[] steps;
+
+        /**
+         * 最近一次参数的类型及其是否为简单类型，参数类型不变时不再查 TypeHandlerRegistry
+         */
+        private volatile ParameterType parameterType;
+
+        CompiledAccessor(Configuration configuration, String property, PropertyStep[] steps) {
+            super(configuration, property);
+            this.steps = steps;
+        }
+
+        @Override
+        public Object getValue(Object parameter, BoundSql boundSql) {
+            if (parameter == null) {
+                return null;
+            }
+            ParameterType type = parameterType;
+            if (type == null || type.type != parameter.getClass()) {
+                type = new ParameterType(parameter.getClass(), super.typeHandlerRegistry.hasTypeHandler(parameter.getClass()));
+                parameterType = type;
+            }
+            if (type.simple) {
+                return parameter;
+            }
+            Object value = parameter;
+            for (PropertyStep step : steps) {
+                value = step.get(value);
+                if (value == null) {
+                    return null;
+                }
+            }
+            return value;
+        }
+    }
+
+    private static class PropertyStep {
+
+        private final Configuration configuration;
+
+        private final String name;
+
+        private volatile ResolvedGetter resolved;
+
+        PropertyStep(Configuration configuration, String name) {
+            this.configuration = configuration;
+            this.name = name;
+        }
+
+        Object get(Object target) {
+            ResolvedGetter getter = resolved;
+            if (getter == null || getter.type != target.getClass()) {
+                getter = new ResolvedGetter(target.getClass(), PropertyGetters.forProperty(configuration, target.getClass(), name));
+                resolved = getter;
+            }
+            return getter.getter.get(target);
+        }
+    }
+
+    private static class ParameterType {
+
+        private final Class<?> type;
+
+        private final boolean simple;
+
+        ParameterType(Class<?> type, boolean simple) {
+            this.type = type;
+            this.simple = simple;
+        }
+    }
+
+    private static class ResolvedGetter {
+
+        private final Class<?> type;
+
+        private final PropertyGetter getter;
+
+        ResolvedGetter(Class<?> type, PropertyGetter getter) {
+            this.type = type;
+            this.getter = getter;
+        }
+    }
+}
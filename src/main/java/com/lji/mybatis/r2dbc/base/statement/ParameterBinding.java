@@ -0,0 +1,109 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import com.lji.mybatis.r2dbc.base.type.R2DBCTypeHandler;
+import com.lji.mybatis.r2dbc.base.type.TypeHandlerRegistry;
+import io.r2dbc.spi.Statement;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+
+import java.nio.ByteBuffer;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+/**
+ * 一个参数占位符的绑定：取值方式和类型处理器在编译计划时确定
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@SuppressWarnings("unchecked")
+final class ParameterBinding {
+
+    private final ParameterMapping parameterMapping;
+
+    private final ParameterAccessor accessor;
+
+    private final Class<?> javaType;
+
+    private final JdbcType jdbcType;
+
+    private final TypeHandlerRegistry typeHandlerRegistry;
+
+    /**
+     * 映射上声明的 R2DBC 类型处理器，或按 javaType 查到的处理器（可能为 null，直接 bind）
+     */
+    private final R2DBCTypeHandler<Object> typeHandler;
+
+    private final boolean explicitTypeHandler;
+
+    ParameterBinding(ParameterMapping parameterMapping, ParameterAccessor accessor, TypeHandlerRegistry typeHandlerRegistry) {
+        this.parameterMapping = parameterMapping;
+        this.accessor = accessor;
+        this.javaType = parameterMapping.getJavaType();
+        this.jdbcType = parameterMapping.getJdbcType();
+        this.typeHandlerRegistry = typeHandlerRegistry;
+        this.explicitTypeHandler = parameterMapping.getTypeHandler() instanceof R2DBCTypeHandler;
+        this.typeHandler = explicitTypeHandler ? (R2DBCTypeHandler<Object>) parameterMapping.getTypeHandler()
+                : typeHandlerRegistry.getTypeHandler(javaType);
+    }
+
+    String getProperty() {
+        return parameterMapping.getProperty();
+    }
+
+    /**
+     * 绑定值在请求中大约占的字节数，用于限制多行 VALUES 语句的大小
+     */
+    int estimateSize(Object parameter, BoundSql boundSql) {
+        return estimateSize(accessor.getValue(parameter, boundSql));
+    }
+
+    /**
+     * 字符串按字符数，二进制按长度，数字和时间按定长估算；其余类型按 8 字节
+     */
+    static int estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof ByteBuffer) {
+            return ((ByteBuffer) value).remaining();
+        } else if (value instanceof Boolean || value instanceof Byte) {
+            return 1;
+        } else if (value instanceof Short) {
+            return 2;
+        } else if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        } else if (value instanceof Number) {
+            // BigDecimal / BigInteger 按常见精度估算
+            return value instanceof Long || value instanceof Double ? 8 : 16;
+        } else if (value instanceof Date || value instanceof TemporalAccessor) {
+            return 12;
+        }
+        return 8;
+    }
+
+    void bind(Statement statement, int index, Object parameter, BoundSql boundSql) {
+        Object value = accessor.getValue(parameter, boundSql);
+        if (value == null) {
+            statement.bindNull(index, javaType != Object.class ? javaType : accessor.getValueType(parameter, boundSql));
+            return;
+        }
+        try {
+            // 值的实际类型与声明类型不同（如 Timestamp 之于 Date）时按实际类型查找
+            R2DBCTypeHandler<Object> handler = explicitTypeHandler || value.getClass() == javaType
+                    ? typeHandler : typeHandlerRegistry.getTypeHandler(value.getClass());
+            if (handler != null) {
+                handler.setParameter(statement, index, value, jdbcType);
+            } else {
+                statement.bind(index, value);
+            }
+        } catch (TypeException e) {
+            throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+        }
+    }
+}
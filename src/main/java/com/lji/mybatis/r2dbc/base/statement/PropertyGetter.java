@@ -0,0 +1,13 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+/**
+ * 属性读取
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@FunctionalInterface
+public interface PropertyGetter {
+
+    Object get(Object target);
+}
@@ -0,0 +1,130 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
+import org.apache.ibatis.session.Configuration;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 单级属性读取的解析：Map 直接 get，能定位 getter/字段时编译成 MethodHandle（按类缓存），其余情况退回 MetaObject
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class PropertyGetters {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Map<String, PropertyGetter>> COMPILED = new ClassValue<Map<String, PropertyGetter>>() {
+        @Override
+        protected Map<String, PropertyGetter> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private PropertyGetters() {
+    }
+
+    /**
+     * @param property 不含 . 和 [] 的属性名
+     */
+    public static PropertyGetter forProperty(Configuration configuration, Class<?> type, String property) {
+        if (!(configuration.getObjectWrapperFactory() instanceof DefaultObjectWrapperFactory)) {
+            // 自定义 ObjectWrapper 的取值规则只有 MetaObject 知道
+            return metaObjectGetter(configuration, property);
+        }
+        Map<String, PropertyGetter> getters = COMPILED.get(type);
+        PropertyGetter getter = getters.get(property);
+        if (getter == null) {
+            getter = compile(configuration, type, property);
+            if (getter == null) {
+                return metaObjectGetter(configuration, property);
+            }
+            getters.put(property, getter);
+        }
+        return getter;
+    }
+
+    private static PropertyGetter compile(Configuration configuration, Class<?> type, String property) {
+        if (Map.class.isAssignableFrom(type)) {
+            return target -> ((Map<?, ?>) target).get(property);
+        }
+        Reflector reflector = configuration.getReflectorFactory().findForClass(type);
+        if (!reflector.hasGetter(property)) {
+            return null;
+        }
+        MethodHandle handle = findGetterHandle(type, property, reflector.getGetterType(property));
+        return handle == null ? null : new MethodHandleGetter(property, handle);
+    }
+
+    private static MethodHandle findGetterHandle(Class<?> type, String property, Class<?> getterType) {
+        try {
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Method method : clazz.getDeclaredMethods()) {
+                    if (method.getParameterCount() == 0 && !method.isBridge() && !Modifier.isStatic(method.getModifiers())
+                            && PropertyNamer.isGetter(method.getName())
+                            && PropertyNamer.methodToProperty(method.getName()).equals(property)
+                            && getterType.isAssignableFrom(method.getReturnType())) {
+                        method.setAccessible(true);
+                        return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+                    }
+                }
+            }
+            for (Method method : type.getMethods()) {
+                // 接口上的默认方法
+                if (method.getParameterCount() == 0 && !method.isBridge() && !Modifier.isStatic(method.getModifiers())
+                        && PropertyNamer.isGetter(method.getName())
+                        && PropertyNamer.methodToProperty(method.getName()).equals(property)) {
+                    return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+                }
+            }
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (field.getName().equals(property) && !Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+                    }
+                }
+            }
+        } catch (IllegalAccessException | RuntimeException ignore) {
+            // 模块或安全策略不允许时退回 MetaObject
+        }
+        return null;
+    }
+
+    private static PropertyGetter metaObjectGetter(Configuration configuration, String property) {
+        return target -> configuration.newMetaObject(target).getValue(property);
+    }
+
+    private static class MethodHandleGetter implements PropertyGetter {
+
+        private final String property;
+
+        private final MethodHandle handle;
+
+        MethodHandleGetter(String property, MethodHandle handle) {
+            this.property = property;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object get(Object target) {
+            try {
+                return (Object) handle.invokeExact(target);
+            } catch (Throwable t) {
+                throw new ReflectionException("Could not get property '" + property + "' from " + target.getClass()
+                        + ". Cause: " + t, t);
+            }
+        }
+    }
+}
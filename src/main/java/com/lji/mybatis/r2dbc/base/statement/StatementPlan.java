@@ -0,0 +1,138 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import com.lji.mybatis.r2dbc.base.dialect.BindMarkers;
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import io.r2dbc.spi.Statement;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+
+import java.util.List;
+
+/**
+ * 语句的执行计划：最终发送的 SQL（占位符按方言改写后缓存）和每个占位符的绑定方式；
+ * 静态语句每个 MappedStatement 一份，动态语句按渲染出的 SQL 各一份
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public final class StatementPlan {
+
+    private final String sql;
+
+    /**
+     * 按占位符顺序，OUT 参数为 null
+     */
+    private final ParameterBinding[] bindings;
+
+    private final boolean staticSql;
+
+    private volatile TranslatedSql translatedSql;
+
+    StatementPlan(String sql, ParameterBinding[] bindings, boolean staticSql) {
+        this.sql = sql;
+        this.bindings = bindings;
+        this.staticSql = staticSql;
+    }
+
+    public static StatementPlan compile(R2dbcConfiguration configuration, BoundSql boundSql, boolean staticSql) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        ParameterBinding[] bindings = new ParameterBinding[parameterMappings.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            ParameterMapping parameterMapping = parameterMappings.get(i);
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            String property = parameterMapping.getProperty();
+            ParameterAccessor accessor = boundSql.hasAdditionalParameter(property)
+                    ? ParameterAccessors.additional(property) : ParameterAccessors.property(configuration, property);
+            bindings[i] = new ParameterBinding(parameterMapping, accessor, configuration.getR2dbcTypeHandlerRegistry());
+        }
+        return new StatementPlan(boundSql.getSql(), bindings, staticSql);
+    }
+
+    /**
+     * @return 占位符为 ? 的 SQL
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * 按占位符风格改写后的 SQL，只在第一次使用（或风格变化）时改写
+     */
+    public String getSql(BindMarkers bindMarkers) {
+        if (bindMarkers.isQuestionMark()) {
+            return sql;
+        }
+        TranslatedSql translated = translatedSql;
+        if (translated == null || translated.bindMarkers != bindMarkers) {
+            translated = new TranslatedSql(bindMarkers, bindMarkers.translate(sql));
+            translatedSql = translated;
+        }
+        return translated.sql;
+    }
+
+    public int getParameterCount() {
+        return bindings.length;
+    }
+
+    public boolean isStatic() {
+        return staticSql;
+    }
+
+    /**
+     * @param boundSql 静态语句可以为 null
+     * @param offset   第一个参数的绑定下标，多行 VALUES 时为前面各行参数个数之和
+     */
+    public void bind(Statement statement, Object parameter, BoundSql boundSql, int offset) {
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] != null) {
+                bindings[i].bind(statement, offset + i, parameter, boundSql);
+            }
+        }
+    }
+
+    /**
+     * 按参数对象估算所有绑定值的字节数
+     *
+     * @param boundSql 静态语句可以为 null
+     */
+    public long estimateSize(Object parameter, BoundSql boundSql) {
+        long size = 0;
+        for (ParameterBinding binding : bindings) {
+            if (binding != null) {
+                size += binding.estimateSize(parameter, boundSql);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 同一 SQL 文本的动态语句，占位符对应的属性也相同才能复用
+     */
+    boolean matches(BoundSql boundSql) {
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings.size() != bindings.length) {
+            return false;
+        }
+        for (int i = 0; i < bindings.length; i++) {
+            if (bindings[i] != null && !bindings[i].getProperty().equals(parameterMappings.get(i).getProperty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class TranslatedSql {
+
+        private final BindMarkers bindMarkers;
+
+        private final String sql;
+
+        TranslatedSql(BindMarkers bindMarkers, String sql) {
+            this.bindMarkers = bindMarkers;
+            this.sql = sql;
+        }
+    }
+}
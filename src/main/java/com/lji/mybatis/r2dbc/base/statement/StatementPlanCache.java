@@ -0,0 +1,150 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 执行计划缓存：静态语句（RawSqlSource）按 MappedStatement id 缓存，执行时不再生成 BoundSql；
+ * 动态语句按 (MappedStatement id, 渲染出的 SQL) 缓存，LRU 淘汰
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class StatementPlanCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final StatementPlan DYNAMIC = new StatementPlan("", new ParameterBinding[0], false);
+
+    private final R2dbcConfiguration configuration;
+
+    private final Map<String, StatementPlan> staticPlans = new ConcurrentHashMap<>();
+
+    private final Map<PlanKey, StatementPlan> dynamicPlans;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public StatementPlanCache(R2dbcConfiguration configuration) {
+        this(configuration, DEFAULT_MAX_SIZE);
+    }
+
+    public StatementPlanCache(R2dbcConfiguration configuration, int maxSize) {
+        this.configuration = configuration;
+        this.dynamicPlans = new LinkedHashMap<PlanKey, StatementPlan>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PlanKey, StatementPlan> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public BoundStatement prepare(MappedStatement mappedStatement, Object parameter) {
+        StatementPlan plan = staticPlans.get(mappedStatement.getId());
+        if (plan == null) {
+            plan = isStatic(mappedStatement.getSqlSource())
+                    ? StatementPlan.compile(configuration, mappedStatement.getBoundSql(null), true) : DYNAMIC;
+            staticPlans.put(mappedStatement.getId(), plan);
+            if (plan != DYNAMIC) {
+                misses.increment();
+            }
+        } else if (plan != DYNAMIC) {
+            hits.increment();
+        }
+        if (plan != DYNAMIC) {
+            return new BoundStatement(mappedStatement, plan, parameter, null);
+        }
+        BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+        return new BoundStatement(mappedStatement, getPlan(mappedStatement, boundSql), parameter, boundSql);
+    }
+
+    /**
+     * 按渲染出的 SQL 查找动态语句的计划
+     */
+    public StatementPlan getPlan(MappedStatement mappedStatement, BoundSql boundSql) {
+        PlanKey key = new PlanKey(mappedStatement.getId(), boundSql.getSql());
+        StatementPlan plan;
+        synchronized (dynamicPlans) {
+            plan = dynamicPlans.get(key);
+        }
+        if (plan != null && plan.matches(boundSql)) {
+            hits.increment();
+            return plan;
+        }
+        misses.increment();
+        plan = StatementPlan.compile(configuration, boundSql, false);
+        synchronized (dynamicPlans) {
+            dynamicPlans.put(key, plan);
+        }
+        return plan;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        synchronized (dynamicPlans) {
+            return staticPlans.size() + dynamicPlans.size();
+        }
+    }
+
+    public void clear() {
+        staticPlans.clear();
+        synchronized (dynamicPlans) {
+            dynamicPlans.clear();
+        }
+    }
+
+    private static boolean isStatic(SqlSource sqlSource) {
+        return sqlSource instanceof RawSqlSource || sqlSource instanceof StaticSqlSource;
+    }
+
+    private static class PlanKey {
+
+        private final String statementId;
+
+        private final String sql;
+
+        private final int hash;
+
+        PlanKey(String statementId, String sql) {
+            this.statementId = statementId;
+            this.sql = sql;
+            this.hash = 31 * statementId.hashCode() + sql.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PlanKey)) {
+                return false;
+            }
+            PlanKey other = (PlanKey) o;
+            return hash == other.hash && statementId.equals(other.statementId) && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
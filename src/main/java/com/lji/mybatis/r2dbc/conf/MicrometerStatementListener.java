@@ -0,0 +1,121 @@
+package com.lji.mybatis.r2dbc.conf;
+
+import com.lji.mybatis.r2dbc.base.execution.StatementExecution;
+import com.lji.mybatis.r2dbc.base.execution.StatementListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.mapping.SqlCommandType;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按语句 id 记录分阶段耗时：mybatis.r2dbc.statement.phase（phase = acquire / bind / execute / mapping / release），
+ * 整体耗时 mybatis.r2dbc.statement 和行数 mybatis.r2dbc.statement.rows，都带 statement、command、outcome 标签，
+ * 超时的执行 outcome 为 timeout；
+ * 同一语句、同一结果的 Meter 只注册一次，之后直接取缓存
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class MicrometerStatementListener implements StatementListener {
+
+    public static final String PHASE_TIMER = "mybatis.r2dbc.statement.phase";
+
+    public static final String STATEMENT_TIMER = "mybatis.r2dbc.statement";
+
+    public static final String ROWS_SUMMARY = "mybatis.r2dbc.statement.rows";
+
+    private static final StatementExecution.Outcome[] OUTCOMES = StatementExecution.Outcome.values();
+
+    private final MeterRegistry registry;
+
+    private final Map<String, StatementMeters[]> meters = new ConcurrentHashMap<>();
+
+    public MicrometerStatementListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void onFinish(StatementExecution execution) {
+        StatementMeters statementMeters = getMeters(execution);
+        if (execution.getAcquireNanos() > 0) {
+            statementMeters.acquire.record(execution.getAcquireNanos(), TimeUnit.NANOSECONDS);
+            statementMeters.release.record(execution.getReleaseNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (execution.getSql() != null) {
+            statementMeters.bind.record(execution.getBindNanos(), TimeUnit.NANOSECONDS);
+            statementMeters.execute.record(execution.getExecuteNanos(), TimeUnit.NANOSECONDS);
+            if (execution.getCommandType() == SqlCommandType.SELECT) {
+                statementMeters.mapping.record(execution.getMappingNanos(), TimeUnit.NANOSECONDS);
+            }
+            statementMeters.rows.record(execution.getRows());
+        }
+        statementMeters.total.record(execution.getTotalNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private StatementMeters getMeters(StatementExecution execution) {
+        StatementMeters[] byOutcome = meters.get(execution.getStatementId());
+        if (byOutcome == null) {
+            byOutcome = meters.computeIfAbsent(execution.getStatementId(), id -> new StatementMeters[OUTCOMES.length]);
+        }
+        int index = execution.getOutcome().ordinal();
+        StatementMeters statementMeters = byOutcome[index];
+        if (statementMeters == null) {
+            // 并发时可能重复创建，Micrometer 注册同名同标签的 Meter 会返回同一个实例
+            statementMeters = new StatementMeters(registry, execution);
+            byOutcome[index] = statementMeters;
+        }
+        return statementMeters;
+    }
+
+    private static class StatementMeters {
+
+        private final Timer acquire;
+
+        private final Timer bind;
+
+        private final Timer execute;
+
+        private final Timer mapping;
+
+        private final Timer release;
+
+        private final Timer total;
+
+        private final DistributionSummary rows;
+
+        StatementMeters(MeterRegistry registry, StatementExecution execution) {
+            Tags tags = Tags.of("statement", execution.getStatementId(),
+                    "command", execution.getCommandType().name().toLowerCase(Locale.ROOT),
+                    "outcome", execution.getOutcome().name().toLowerCase(Locale.ROOT));
+            this.acquire = phase(registry, tags, "acquire");
+            this.bind = phase(registry, tags, "bind");
+            this.execute = phase(registry, tags, "execute");
+            this.mapping = phase(registry, tags, "mapping");
+            this.release = phase(registry, tags, "release");
+            this.total = Timer.builder(STATEMENT_TIMER)
+                    .tags(tags)
+                    .description("Statement execution from subscription to connection release")
+                    .register(registry);
+            this.rows = DistributionSummary.builder(ROWS_SUMMARY)
+                    .tags(tags)
+                    .baseUnit("rows")
+                    .description("Rows mapped by a select, or rows updated by an insert/update/delete")
+                    .register(registry);
+        }
+
+        private static Timer phase(MeterRegistry registry, Tags tags, String phase) {
+            return Timer.builder(PHASE_TIMER)
+                    .tags(tags)
+                    .tag("phase", phase)
+                    .description("Statement execution time by phase: connection acquire, bind, execute to first row, "
+                            + "row mapping and connection release")
+                    .register(registry);
+        }
+    }
+}
@@ -1,12 +1,30 @@
 package com.lji.mybatis.r2dbc.conf;
 
 import com.lji.mybatis.r2dbc.base.ReactiveSqlSession;
+import com.lji.mybatis.r2dbc.base.SelectOnePolicy;
+import com.lji.mybatis.r2dbc.base.cache.QueryCoalescer;
+import com.lji.mybatis.r2dbc.base.execution.SlowQueryLog;
+import com.lji.mybatis.r2dbc.base.execution.StatementListener;
+import com.lji.mybatis.r2dbc.base.mapping.CompiledRowMapper;
+import com.lji.mybatis.r2dbc.base.mapping.RowMappingPlanCache;
+import com.lji.mybatis.r2dbc.base.routing.ReplicaRouter;
+import com.lji.mybatis.r2dbc.base.sharding.ShardRouter;
+import com.lji.mybatis.r2dbc.base.statement.StatementPlanCache;
 import com.lji.mybatis.r2dbc.base.type.R2DBCTypeHandler;
 import com.lji.mybatis.r2dbc.base.type.TypeHandlerRegistry;
+import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.TypeHandler;
 import org.springframework.beans.factory.InitializingBean;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 /**
  * r2dbc配置
  *
@@ -15,10 +33,78 @@ import org.springframework.beans.factory.InitializingBean;
  */
 public class R2dbcConfiguration extends Configuration implements InitializingBean {
 
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    public static final int DEFAULT_MULTI_ROW_MAX_PARAMETERS = 2000;
+
+    public static final int DEFAULT_MULTI_ROW_MAX_BYTES = 1024 * 1024;
+
+    public static final Duration DEFAULT_BATCH_LOAD_WINDOW = Duration.ofMillis(5);
+
+    public static final int DEFAULT_BATCH_LOAD_MAX_SIZE = 100;
+
+    public static final int DEFAULT_NESTED_RESULT_BUFFER_SIZE = 1;
+
+    public static final int DEFAULT_NESTED_SELECT_BATCH_SIZE = 100;
+
+    public static final int DEFAULT_NESTED_SELECT_CONCURRENCY = 4;
+
+    public static final int DEFAULT_RESULT_PREFETCH = 256;
+
+    public static final int DEFAULT_ENCODED_BUFFER_SIZE = 32 * 1024;
+
+    public static final int DEFAULT_RESULT_CHUNK_SIZE = 1024;
+
     private final R2dbcMapperRegistry mapperRegistry = new R2dbcMapperRegistry(this);
 
     private final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry();
 
+    private final Map<String, CompiledRowMapper> rowMappers = new ConcurrentHashMap<>();
+
+    private RowMappingPlanCache rowMappingPlanCache = new RowMappingPlanCache();
+
+    private StatementPlanCache statementPlanCache = new StatementPlanCache(this);
+
+    private SelectOnePolicy selectOnePolicy = SelectOnePolicy.FIRST;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    private int multiRowMaxParameters = DEFAULT_MULTI_ROW_MAX_PARAMETERS;
+
+    private int multiRowMaxBytes = DEFAULT_MULTI_ROW_MAX_BYTES;
+
+    private Duration batchLoadWindow = DEFAULT_BATCH_LOAD_WINDOW;
+
+    private int batchLoadMaxSize = DEFAULT_BATCH_LOAD_MAX_SIZE;
+
+    private int nestedResultBufferSize = DEFAULT_NESTED_RESULT_BUFFER_SIZE;
+
+    private int nestedSelectBatchSize = DEFAULT_NESTED_SELECT_BATCH_SIZE;
+
+    private int nestedSelectConcurrency = DEFAULT_NESTED_SELECT_CONCURRENCY;
+
+    private final Map<String, String> batchSelectStatements = new ConcurrentHashMap<>();
+
+    private int resultPrefetch = DEFAULT_RESULT_PREFETCH;
+
+    private int encodedBufferSize = DEFAULT_ENCODED_BUFFER_SIZE;
+
+    private int resultChunkSize = DEFAULT_RESULT_CHUNK_SIZE;
+
+    private final Set<String> coalescedStatements = ConcurrentHashMap.newKeySet();
+
+    private final QueryCoalescer queryCoalescer = new QueryCoalescer();
+
+    private final List<StatementListener> statementListeners = new CopyOnWriteArrayList<>();
+
+    private SlowQueryLog slowQueryLog;
+
+    private ReplicaRouter replicaRouter;
+
+    private ShardRouter shardRouter;
+
+    private final Set<String> primaryStatements = ConcurrentHashMap.newKeySet();
+
     public <T> T getMapper(Class<T> type, ReactiveSqlSession session) {
         return mapperRegistry.getMapper(type, session);
     }
@@ -47,6 +133,265 @@ public class R2dbcConfiguration extends Configuration implements InitializingBea
         return typeHandlerRegistry;
     }
 
+    public CompiledRowMapper getRowMapper(ResultMap resultMap) {
+        CompiledRowMapper rowMapper = rowMappers.get(resultMap.getId());
+        if (rowMapper == null) {
+            rowMapper = new CompiledRowMapper(this, resultMap);
+            CompiledRowMapper existing = rowMappers.putIfAbsent(resultMap.getId(), rowMapper);
+            if (existing != null) {
+                rowMapper = existing;
+            }
+        }
+        return rowMapper;
+    }
+
+    public RowMappingPlanCache getRowMappingPlanCache() {
+        return rowMappingPlanCache;
+    }
+
+    public void setRowMappingPlanCacheSize(int rowMappingPlanCacheSize) {
+        this.rowMappingPlanCache = new RowMappingPlanCache(rowMappingPlanCacheSize);
+    }
+
+    public StatementPlanCache getStatementPlanCache() {
+        return statementPlanCache;
+    }
+
+    public void setStatementPlanCacheSize(int statementPlanCacheSize) {
+        this.statementPlanCache = new StatementPlanCache(this, statementPlanCacheSize);
+    }
+
+    /**
+     * 注册语句执行结束的回调；没有回调时执行链路不记录分阶段耗时
+     */
+    public void addStatementListener(StatementListener listener) {
+        statementListeners.add(listener);
+    }
+
+    public List<StatementListener> getStatementListeners() {
+        return statementListeners;
+    }
+
+    /**
+     * @return 慢查询记录，未开启时为 null
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        if (this.slowQueryLog != null) {
+            statementListeners.remove(this.slowQueryLog);
+        }
+        this.slowQueryLog = slowQueryLog;
+        if (slowQueryLog != null) {
+            statementListeners.add(slowQueryLog);
+        }
+    }
+
+    public SelectOnePolicy getSelectOnePolicy() {
+        return selectOnePolicy;
+    }
+
+    public void setSelectOnePolicy(SelectOnePolicy selectOnePolicy) {
+        this.selectOnePolicy = selectOnePolicy;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getMultiRowMaxParameters() {
+        return multiRowMaxParameters;
+    }
+
+    public void setMultiRowMaxParameters(int multiRowMaxParameters) {
+        this.multiRowMaxParameters = multiRowMaxParameters;
+    }
+
+    public int getMultiRowMaxBytes() {
+        return multiRowMaxBytes;
+    }
+
+    public void setMultiRowMaxBytes(int multiRowMaxBytes) {
+        this.multiRowMaxBytes = multiRowMaxBytes;
+    }
+
+    public Duration getBatchLoadWindow() {
+        return batchLoadWindow;
+    }
+
+    public void setBatchLoadWindow(Duration batchLoadWindow) {
+        this.batchLoadWindow = batchLoadWindow;
+    }
+
+    public int getBatchLoadMaxSize() {
+        return batchLoadMaxSize;
+    }
+
+    public void setBatchLoadMaxSize(int batchLoadMaxSize) {
+        this.batchLoadMaxSize = batchLoadMaxSize;
+    }
+
+    public int getNestedResultBufferSize() {
+        return nestedResultBufferSize;
+    }
+
+    /**
+     * @param nestedResultBufferSize 合并嵌套结果时同时保留的未完成父对象个数，1 表示要求结果按父对象 id 排序
+     */
+    public void setNestedResultBufferSize(int nestedResultBufferSize) {
+        if (nestedResultBufferSize <= 0) {
+            throw new IllegalArgumentException("nestedResultBufferSize must be positive: " + nestedResultBufferSize);
+        }
+        this.nestedResultBufferSize = nestedResultBufferSize;
+    }
+
+    public int getNestedSelectBatchSize() {
+        return nestedSelectBatchSize;
+    }
+
+    /**
+     * @param nestedSelectBatchSize select= 嵌套查询每批的父对象个数，每批每个嵌套属性查一次
+     */
+    public void setNestedSelectBatchSize(int nestedSelectBatchSize) {
+        if (nestedSelectBatchSize <= 0) {
+            throw new IllegalArgumentException("nestedSelectBatchSize must be positive: " + nestedSelectBatchSize);
+        }
+        this.nestedSelectBatchSize = nestedSelectBatchSize;
+    }
+
+    public int getNestedSelectConcurrency() {
+        return nestedSelectConcurrency;
+    }
+
+    /**
+     * @param nestedSelectConcurrency 没有声明为批量的 select= 嵌套查询按 key 逐个查询时同时执行的查询数，事务中总是逐个执行
+     */
+    public void setNestedSelectConcurrency(int nestedSelectConcurrency) {
+        if (nestedSelectConcurrency <= 0) {
+            throw new IllegalArgumentException("nestedSelectConcurrency must be positive: " + nestedSelectConcurrency);
+        }
+        this.nestedSelectConcurrency = nestedSelectConcurrency;
+    }
+
+    /**
+     * select= 嵌套查询引用的语句以一批父 key 的列表为参数，结果按 keyProperty 分给父对象
+     */
+    public void addBatchSelectStatement(String statementId, String keyProperty) {
+        batchSelectStatements.put(statementId, keyProperty);
+    }
+
+    public void addBatchSelectStatements(Map<String, String> statements) {
+        batchSelectStatements.putAll(statements);
+    }
+
+    /**
+     * @return 批量嵌套查询语句的 keyProperty，没有声明为批量时为 null
+     */
+    public String getBatchSelectKeyProperty(String statementId) {
+        return batchSelectStatements.get(statementId);
+    }
+
+    public int getResultPrefetch() {
+        return resultPrefetch;
+    }
+
+    /**
+     * @param resultPrefetch 查询向驱动请求行的批大小，语句设置了 fetchSize 时以 fetchSize 为准；小于等于 0 时下游请求多少就向驱动请求多少
+     */
+    public void setResultPrefetch(int resultPrefetch) {
+        this.resultPrefetch = resultPrefetch;
+    }
+
+    public int getEncodedBufferSize() {
+        return encodedBufferSize;
+    }
+
+    /**
+     * @param encodedBufferSize selectEncoded 输出的每个 DataBuffer 的目标字节数，攒够这么多行的编码结果才输出一块
+     */
+    public void setEncodedBufferSize(int encodedBufferSize) {
+        if (encodedBufferSize <= 0) {
+            throw new IllegalArgumentException("encodedBufferSize must be positive: " + encodedBufferSize);
+        }
+        this.encodedBufferSize = encodedBufferSize;
+    }
+
+    public int getResultChunkSize() {
+        return resultChunkSize;
+    }
+
+    /**
+     * @param resultChunkSize selectChunked / selectColumns 没有指定时每批的行数
+     */
+    public void setResultChunkSize(int resultChunkSize) {
+        if (resultChunkSize <= 0) {
+            throw new IllegalArgumentException("resultChunkSize must be positive: " + resultChunkSize);
+        }
+        this.resultChunkSize = resultChunkSize;
+    }
+
+    public void addCoalescedStatement(String statementId) {
+        coalescedStatements.add(statementId);
+    }
+
+    public void addCoalescedStatements(Collection<String> statementIds) {
+        coalescedStatements.addAll(statementIds);
+    }
+
+    public boolean isCoalesced(String statementId) {
+        return coalescedStatements.contains(statementId);
+    }
+
+    public QueryCoalescer getQueryCoalescer() {
+        return queryCoalescer;
+    }
+
+    /**
+     * @return 只读副本路由，未配置副本时为 null
+     */
+    public ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * @return 分片路由，未配置分片时为 null
+     */
+    public ShardRouter getShardRouter() {
+        return shardRouter;
+    }
+
+    public void setShardRouter(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * 配置了只读副本时仍在主库执行的 select 语句
+     */
+    public void addPrimaryStatement(String statementId) {
+        primaryStatements.add(statementId);
+    }
+
+    public void addPrimaryStatements(Collection<String> statementIds) {
+        primaryStatements.addAll(statementIds);
+    }
+
+    public boolean isPrimaryStatement(String statementId) {
+        return primaryStatements.contains(statementId);
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         for (TypeHandler<?> typeHandler : super.getTypeHandlerRegistry().getTypeHandlers()) {
@@ -1,5 +1,8 @@
 package com.lji.mybatis.r2dbc.conf;
 
+import com.lji.mybatis.r2dbc.annotation.BatchSelect;
+import com.lji.mybatis.r2dbc.annotation.Coalesce;
+import com.lji.mybatis.r2dbc.annotation.UsePrimary;
 import com.lji.mybatis.r2dbc.base.ReactiveSqlSession;
 import com.lji.mybatis.r2dbc.base.binding.MapperProxyFactory;
 import org.apache.ibatis.binding.BindingException;
@@ -7,6 +10,7 @@ import org.apache.ibatis.binding.MapperRegistry;
 import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.session.Configuration;
 
+import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -57,6 +61,7 @@ public class R2dbcMapperRegistry extends MapperRegistry {
                 knownMappers.put(type, new MapperProxyFactory<>(type));
                 MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type);
                 parser.parse();
+                registerAnnotatedStatements(type);
                 loadCompleted = true;
             } finally {
                 if (!loadCompleted) {
@@ -66,6 +71,24 @@ public class R2dbcMapperRegistry extends MapperRegistry {
         }
     }
 
+    private void registerAnnotatedStatements(Class<?> type) {
+        if (!(config instanceof R2dbcConfiguration)) {
+            return;
+        }
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Coalesce.class)) {
+                ((R2dbcConfiguration) config).addCoalescedStatement(type.getName() + "." + method.getName());
+            }
+            if (method.isAnnotationPresent(UsePrimary.class)) {
+                ((R2dbcConfiguration) config).addPrimaryStatement(type.getName() + "." + method.getName());
+            }
+            BatchSelect batchSelect = method.getAnnotation(BatchSelect.class);
+            if (batchSelect != null) {
+                ((R2dbcConfiguration) config).addBatchSelectStatement(type.getName() + "." + method.getName(), batchSelect.keyProperty());
+            }
+        }
+    }
+
     @Override
     public Collection<Class<?>> getMappers() {
         return Collections.unmodifiableCollection(knownMappers.keySet());
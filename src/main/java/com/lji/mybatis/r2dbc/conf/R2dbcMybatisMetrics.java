@@ -0,0 +1,78 @@
+package com.lji.mybatis.r2dbc.conf;
+
+import com.lji.mybatis.r2dbc.base.cache.QueryCoalescer;
+import com.lji.mybatis.r2dbc.base.mapping.RowMappingPlanCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * 把映射计划缓存、执行计划缓存、查询合并的计数注册到 Micrometer，并按语句记录分阶段耗时（{@link MicrometerStatementListener}）
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+public class R2dbcMybatisMetrics implements MeterBinder {
+
+    private final R2dbcConfiguration configuration;
+
+    private final boolean statementMetricsEnabled;
+
+    public R2dbcMybatisMetrics(R2dbcConfiguration configuration) {
+        this(configuration, true);
+    }
+
+    public R2dbcMybatisMetrics(R2dbcConfiguration configuration, boolean statementMetricsEnabled) {
+        this.configuration = configuration;
+        this.statementMetricsEnabled = statementMetricsEnabled;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mybatis.r2dbc.row.plan.cache", configuration,
+                        c -> c.getRowMappingPlanCache().getHitCount())
+                .tag("result", "hit")
+                .description("Row mapping plan cache lookups")
+                .register(registry);
+        FunctionCounter.builder("mybatis.r2dbc.row.plan.cache", configuration,
+                        c -> c.getRowMappingPlanCache().getMissCount())
+                .tag("result", "miss")
+                .description("Row mapping plan cache lookups")
+                .register(registry);
+        Gauge.builder("mybatis.r2dbc.row.plan.cache.size", configuration, c -> c.getRowMappingPlanCache().size())
+                .description("Cached row mapping plans")
+                .register(registry);
+
+        FunctionCounter.builder("mybatis.r2dbc.statement.plan.cache", configuration,
+                        c -> c.getStatementPlanCache().getHitCount())
+                .tag("result", "hit")
+                .description("Statement plan cache lookups")
+                .register(registry);
+        FunctionCounter.builder("mybatis.r2dbc.statement.plan.cache", configuration,
+                        c -> c.getStatementPlanCache().getMissCount())
+                .tag("result", "miss")
+                .description("Statement plan cache lookups")
+                .register(registry);
+        Gauge.builder("mybatis.r2dbc.statement.plan.cache.size", configuration, c -> c.getStatementPlanCache().size())
+                .description("Cached statement plans")
+                .register(registry);
+
+        QueryCoalescer queryCoalescer = configuration.getQueryCoalescer();
+        FunctionCounter.builder("mybatis.r2dbc.coalesce", queryCoalescer, QueryCoalescer::getExecutedCount)
+                .tag("result", "executed")
+                .description("Coalesced selects, by whether they executed or joined an in-flight query")
+                .register(registry);
+        FunctionCounter.builder("mybatis.r2dbc.coalesce", queryCoalescer, QueryCoalescer::getCoalescedCount)
+                .tag("result", "coalesced")
+                .description("Coalesced selects, by whether they executed or joined an in-flight query")
+                .register(registry);
+        Gauge.builder("mybatis.r2dbc.coalesce.in.flight", queryCoalescer, QueryCoalescer::getInFlightCount)
+                .description("Selects currently shared by coalescing")
+                .register(registry);
+
+        if (statementMetricsEnabled) {
+            configuration.addStatementListener(new MicrometerStatementListener(registry));
+        }
+    }
+}
@@ -1,14 +1,26 @@
 package com.lji.mybatis.r2dbc.conf;
 
+import com.lji.mybatis.r2dbc.base.SelectOnePolicy;
+import com.lji.mybatis.r2dbc.base.execution.SlowQueryLog;
+import com.lji.mybatis.r2dbc.base.mapping.RowMappingPlanCache;
+import com.lji.mybatis.r2dbc.base.routing.ReplicaRouter;
+import com.lji.mybatis.r2dbc.base.routing.ReplicaSelection;
+import com.lji.mybatis.r2dbc.base.sharding.ShardRouter;
+import com.lji.mybatis.r2dbc.base.statement.StatementPlanCache;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * r2dbc mybatis属性
@@ -23,6 +35,187 @@ public class R2dbcMybatisProperties {
 
     private String typeAliasesPackage;
 
+    /**
+     * 数据库标识（mysql/postgresql/h2/sqlserver/oracle），为空时根据 ConnectionFactory 识别分页方言
+     */
+    private String databaseId;
+
+    /**
+     * 行映射计划缓存的最大条目数
+     */
+    private int rowMappingPlanCacheSize = RowMappingPlanCache.DEFAULT_MAX_SIZE;
+
+    /**
+     * 动态语句执行计划缓存的最大条目数（按渲染出的 SQL 区分）
+     */
+    private int statementPlanCacheSize = StatementPlanCache.DEFAULT_MAX_SIZE;
+
+    /**
+     * selectOne 查到多行时返回第一行（first）还是报错（fail）
+     */
+    private SelectOnePolicy selectOnePolicy = SelectOnePolicy.FIRST;
+
+    /**
+     * 批量执行时每次提交的参数个数
+     */
+    private int batchSize = R2dbcConfiguration.DEFAULT_BATCH_SIZE;
+
+    /**
+     * 多行 VALUES 插入时每条语句的最大参数个数（SQL Server 上限 2100，PostgreSQL 32767）
+     */
+    private int multiRowMaxParameters = R2dbcConfiguration.DEFAULT_MULTI_ROW_MAX_PARAMETERS;
+
+    /**
+     * 多行 VALUES 插入时每条语句的最大字节数（SQL 长度加绑定值的估算大小）
+     */
+    private int multiRowMaxBytes = R2dbcConfiguration.DEFAULT_MULTI_ROW_MAX_BYTES;
+
+    /**
+     * 合并并发相同查询的语句 id，也可以在 mapper 方法上用 @Coalesce 声明
+     */
+    private Set<String> coalescedStatements = new HashSet<>();
+
+    /**
+     * 按 key 批量加载（@BatchLoad / selectByKey）收集 key 的时间窗口
+     */
+    private Duration batchLoadWindow = R2dbcConfiguration.DEFAULT_BATCH_LOAD_WINDOW;
+
+    /**
+     * 按 key 批量加载时每批最多的 key 个数
+     */
+    private int batchLoadMaxSize = R2dbcConfiguration.DEFAULT_BATCH_LOAD_MAX_SIZE;
+
+    /**
+     * 含 association/collection 嵌套映射（join）的查询流式合并父对象时，同时保留的未完成父对象个数；
+     * 默认 1，要求 SQL 按父对象 id 排序，结果无序时调大
+     */
+    private int nestedResultBufferSize = R2dbcConfiguration.DEFAULT_NESTED_RESULT_BUFFER_SIZE;
+
+    /**
+     * association/collection 的 select= 嵌套查询每批的父对象个数，批量嵌套查询语句每批只执行一次
+     */
+    private int nestedSelectBatchSize = R2dbcConfiguration.DEFAULT_NESTED_SELECT_BATCH_SIZE;
+
+    /**
+     * 批量嵌套查询语句 id 到子对象中父 key 属性的映射，语句以一批父 key 的列表为参数；也可以在 mapper 方法上用 @BatchSelect 声明
+     */
+    private Map<String, String> batchSelectStatements = new HashMap<>();
+
+    /**
+     * 不是批量的 select= 嵌套查询按 key 逐个查询时同时执行的查询数
+     */
+    private int nestedSelectConcurrency = R2dbcConfiguration.DEFAULT_NESTED_SELECT_CONCURRENCY;
+
+    /**
+     * 查询语句默认的 fetchSize（语句上的 fetchSize 优先），传给驱动的 Statement.fetchSize
+     */
+    private Integer defaultFetchSize;
+
+    /**
+     * 语句默认的超时时间（秒，语句上的 timeout 优先），从执行到返回第一个结果超过此时间时取消执行并释放连接
+     */
+    private Integer defaultStatementTimeout;
+
+    /**
+     * 查询向驱动请求行的批大小，语句有 fetchSize 时以 fetchSize 为准；小于等于 0 时不限制，下游请求多少就向驱动请求多少
+     */
+    private int resultPrefetch = R2dbcConfiguration.DEFAULT_RESULT_PREFETCH;
+
+    /**
+     * selectEncoded 输出的每个 DataBuffer 的目标字节数（默认 32KB）
+     */
+    private int encodedBufferSize = R2dbcConfiguration.DEFAULT_ENCODED_BUFFER_SIZE;
+
+    /**
+     * selectChunked / selectColumns 没有指定批大小时每批的行数
+     */
+    private int resultChunkSize = R2dbcConfiguration.DEFAULT_RESULT_CHUNK_SIZE;
+
+    /**
+     * 有 Micrometer 时按语句记录分阶段耗时（获取连接、绑定、执行到第一行、行映射、释放连接）和行数
+     */
+    private boolean statementMetricsEnabled = true;
+
+    /**
+     * 慢查询阈值，超过的执行记录到慢查询缓冲区并打 WARN 日志；不设置且 slowQueryThresholds 为空时不记录
+     */
+    private Duration slowQueryThreshold;
+
+    /**
+     * 按语句 id 或 namespace 单独设置的慢查询阈值，语句 id 优先，其次是最长的 namespace
+     */
+    private Map<String, Duration> slowQueryThresholds = new HashMap<>();
+
+    /**
+     * 未超过阈值的查询按此比例抽样记录（0 ~ 1），作为对比基线
+     */
+    private double slowQuerySampleRate;
+
+    /**
+     * 慢查询缓冲区大小（向上取 2 的幂），满了覆盖最早的记录
+     */
+    private int slowQueryLogSize = SlowQueryLog.DEFAULT_CAPACITY;
+
+    /**
+     * 慢查询记录中需要脱敏的参数名，参数名（最后一级）包含其中任一词即脱敏，忽略大小写
+     */
+    private Set<String> slowQueryRedactedParameters = new HashSet<>(Arrays.asList("password", "secret", "token"));
+
+    /**
+     * 只读副本的 R2DBC URL（可以是 r2dbc:pool:...），不在事务中的 select 按 replicaSelection 分到这些副本，写语句和事务走主库
+     */
+    private List<String> replicaUrls = new ArrayList<>();
+
+    /**
+     * 副本的选择方式：round_robin（轮流）或 least_pending（占用连接最少）
+     */
+    private ReplicaSelection replicaSelection = ReplicaSelection.ROUND_ROBIN;
+
+    /**
+     * 副本连续失败（获取连接失败或连接层面的错误）多少次后摘除
+     */
+    private int replicaEjectAfterFailures = ReplicaRouter.DEFAULT_EJECT_AFTER_FAILURES;
+
+    /**
+     * 副本被摘除的时长，到期后放回一个请求试探
+     */
+    private Duration replicaEjectDuration = ReplicaRouter.DEFAULT_EJECT_DURATION;
+
+    /**
+     * 配置了副本时仍在主库执行的 select 语句 id，也可以在 mapper 方法上用 @UsePrimary 声明
+     */
+    private Set<String> primaryStatements = new HashSet<>();
+
+    /**
+     * 分片的 R2DBC URL，按顺序对应分片下标 0 ~ N-1
+     */
+    private List<String> shardUrls = new ArrayList<>();
+
+    /**
+     * 分片的语句 id 或 namespace
+     */
+    private Set<String> shardedStatements = new HashSet<>();
+
+    /**
+     * 分片键在参数中的属性名
+     */
+    private String shardKeyProperty = ShardRouter.DEFAULT_KEY_PROPERTY;
+
+    /**
+     * 按语句 id 或 namespace 单独设置的分片键属性名
+     */
+    private Map<String, String> shardKeyProperties = new HashMap<>();
+
+    /**
+     * 发到所有分片的查询按此排序多路归并（语句 id 或 namespace 到 "createTime desc, id" 形式的结果属性列表），未设置的按到达顺序合并
+     */
+    private Map<String, String> shardMergeOrders = new HashMap<>();
+
+    /**
+     * 每个分片同时执行的语句数上限
+     */
+    private int shardMaxConcurrency = ShardRouter.DEFAULT_MAX_CONCURRENCY;
+
     public String[] getMapperLocations() {
         return mapperLocations;
     }
@@ -39,6 +232,294 @@ public class R2dbcMybatisProperties {
         this.typeAliasesPackage = typeAliasesPackage;
     }
 
+    public String getDatabaseId() {
+        return databaseId;
+    }
+
+    public void setDatabaseId(String databaseId) {
+        this.databaseId = databaseId;
+    }
+
+    public int getRowMappingPlanCacheSize() {
+        return rowMappingPlanCacheSize;
+    }
+
+    public void setRowMappingPlanCacheSize(int rowMappingPlanCacheSize) {
+        this.rowMappingPlanCacheSize = rowMappingPlanCacheSize;
+    }
+
+    public int getStatementPlanCacheSize() {
+        return statementPlanCacheSize;
+    }
+
+    public void setStatementPlanCacheSize(int statementPlanCacheSize) {
+        this.statementPlanCacheSize = statementPlanCacheSize;
+    }
+
+    public SelectOnePolicy getSelectOnePolicy() {
+        return selectOnePolicy;
+    }
+
+    public void setSelectOnePolicy(SelectOnePolicy selectOnePolicy) {
+        this.selectOnePolicy = selectOnePolicy;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMultiRowMaxParameters() {
+        return multiRowMaxParameters;
+    }
+
+    public void setMultiRowMaxParameters(int multiRowMaxParameters) {
+        this.multiRowMaxParameters = multiRowMaxParameters;
+    }
+
+    public int getMultiRowMaxBytes() {
+        return multiRowMaxBytes;
+    }
+
+    public void setMultiRowMaxBytes(int multiRowMaxBytes) {
+        this.multiRowMaxBytes = multiRowMaxBytes;
+    }
+
+    public Set<String> getCoalescedStatements() {
+        return coalescedStatements;
+    }
+
+    public void setCoalescedStatements(Set<String> coalescedStatements) {
+        this.coalescedStatements = coalescedStatements;
+    }
+
+    public Duration getBatchLoadWindow() {
+        return batchLoadWindow;
+    }
+
+    public void setBatchLoadWindow(Duration batchLoadWindow) {
+        this.batchLoadWindow = batchLoadWindow;
+    }
+
+    public int getBatchLoadMaxSize() {
+        return batchLoadMaxSize;
+    }
+
+    public void setBatchLoadMaxSize(int batchLoadMaxSize) {
+        this.batchLoadMaxSize = batchLoadMaxSize;
+    }
+
+    public int getNestedResultBufferSize() {
+        return nestedResultBufferSize;
+    }
+
+    public void setNestedResultBufferSize(int nestedResultBufferSize) {
+        this.nestedResultBufferSize = nestedResultBufferSize;
+    }
+
+    public int getNestedSelectBatchSize() {
+        return nestedSelectBatchSize;
+    }
+
+    public void setNestedSelectBatchSize(int nestedSelectBatchSize) {
+        this.nestedSelectBatchSize = nestedSelectBatchSize;
+    }
+
+    public Map<String, String> getBatchSelectStatements() {
+        return batchSelectStatements;
+    }
+
+    public void setBatchSelectStatements(Map<String, String> batchSelectStatements) {
+        this.batchSelectStatements = batchSelectStatements;
+    }
+
+    public int getNestedSelectConcurrency() {
+        return nestedSelectConcurrency;
+    }
+
+    public void setNestedSelectConcurrency(int nestedSelectConcurrency) {
+        this.nestedSelectConcurrency = nestedSelectConcurrency;
+    }
+
+    public Integer getDefaultFetchSize() {
+        return defaultFetchSize;
+    }
+
+    public void setDefaultFetchSize(Integer defaultFetchSize) {
+        this.defaultFetchSize = defaultFetchSize;
+    }
+
+    public Integer getDefaultStatementTimeout() {
+        return defaultStatementTimeout;
+    }
+
+    public void setDefaultStatementTimeout(Integer defaultStatementTimeout) {
+        this.defaultStatementTimeout = defaultStatementTimeout;
+    }
+
+    public int getResultPrefetch() {
+        return resultPrefetch;
+    }
+
+    public void setResultPrefetch(int resultPrefetch) {
+        this.resultPrefetch = resultPrefetch;
+    }
+
+    public int getEncodedBufferSize() {
+        return encodedBufferSize;
+    }
+
+    public void setEncodedBufferSize(int encodedBufferSize) {
+        this.encodedBufferSize = encodedBufferSize;
+    }
+
+    public int getResultChunkSize() {
+        return resultChunkSize;
+    }
+
+    public void setResultChunkSize(int resultChunkSize) {
+        this.resultChunkSize = resultChunkSize;
+    }
+
+    public boolean isStatementMetricsEnabled() {
+        return statementMetricsEnabled;
+    }
+
+    public void setStatementMetricsEnabled(boolean statementMetricsEnabled) {
+        this.statementMetricsEnabled = statementMetricsEnabled;
+    }
+
+    public Duration getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public Map<String, Duration> getSlowQueryThresholds() {
+        return slowQueryThresholds;
+    }
+
+    public void setSlowQueryThresholds(Map<String, Duration> slowQueryThresholds) {
+        this.slowQueryThresholds = slowQueryThresholds;
+    }
+
+    public double getSlowQuerySampleRate() {
+        return slowQuerySampleRate;
+    }
+
+    public void setSlowQuerySampleRate(double slowQuerySampleRate) {
+        this.slowQuerySampleRate = slowQuerySampleRate;
+    }
+
+    public int getSlowQueryLogSize() {
+        return slowQueryLogSize;
+    }
+
+    public void setSlowQueryLogSize(int slowQueryLogSize) {
+        this.slowQueryLogSize = slowQueryLogSize;
+    }
+
+    public Set<String> getSlowQueryRedactedParameters() {
+        return slowQueryRedactedParameters;
+    }
+
+    public void setSlowQueryRedactedParameters(Set<String> slowQueryRedactedParameters) {
+        this.slowQueryRedactedParameters = slowQueryRedactedParameters;
+    }
+
+    public List<String> getReplicaUrls() {
+        return replicaUrls;
+    }
+
+    public void setReplicaUrls(List<String> replicaUrls) {
+        this.replicaUrls = replicaUrls;
+    }
+
+    public ReplicaSelection getReplicaSelection() {
+        return replicaSelection;
+    }
+
+    public void setReplicaSelection(ReplicaSelection replicaSelection) {
+        this.replicaSelection = replicaSelection;
+    }
+
+    public int getReplicaEjectAfterFailures() {
+        return replicaEjectAfterFailures;
+    }
+
+    public void setReplicaEjectAfterFailures(int replicaEjectAfterFailures) {
+        this.replicaEjectAfterFailures = replicaEjectAfterFailures;
+    }
+
+    public Duration getReplicaEjectDuration() {
+        return replicaEjectDuration;
+    }
+
+    public void setReplicaEjectDuration(Duration replicaEjectDuration) {
+        this.replicaEjectDuration = replicaEjectDuration;
+    }
+
+    public Set<String> getPrimaryStatements() {
+        return primaryStatements;
+    }
+
+    public void setPrimaryStatements(Set<String> primaryStatements) {
+        this.primaryStatements = primaryStatements;
+    }
+
+    public List<String> getShardUrls() {
+        return shardUrls;
+    }
+
+    public void setShardUrls(List<String> shardUrls) {
+        this.shardUrls = shardUrls;
+    }
+
+    public Set<String> getShardedStatements() {
+        return shardedStatements;
+    }
+
+    public void setShardedStatements(Set<String> shardedStatements) {
+        this.shardedStatements = shardedStatements;
+    }
+
+    public String getShardKeyProperty() {
+        return shardKeyProperty;
+    }
+
+    public void setShardKeyProperty(String shardKeyProperty) {
+        this.shardKeyProperty = shardKeyProperty;
+    }
+
+    public Map<String, String> getShardKeyProperties() {
+        return shardKeyProperties;
+    }
+
+    public void setShardKeyProperties(Map<String, String> shardKeyProperties) {
+        this.shardKeyProperties = shardKeyProperties;
+    }
+
+    public Map<String, String> getShardMergeOrders() {
+        return shardMergeOrders;
+    }
+
+    public void setShardMergeOrders(Map<String, String> shardMergeOrders) {
+        this.shardMergeOrders = shardMergeOrders;
+    }
+
+    public int getShardMaxConcurrency() {
+        return shardMaxConcurrency;
+    }
+
+    public void setShardMaxConcurrency(int shardMaxConcurrency) {
+        this.shardMaxConcurrency = shardMaxConcurrency;
+    }
+
     public Resource[] resolveMapperLocations() {
         ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
         List<Resource> resources = new ArrayList<>();
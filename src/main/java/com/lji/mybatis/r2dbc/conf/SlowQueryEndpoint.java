@@ -0,0 +1,95 @@
+package com.lji.mybatis.r2dbc.conf;
+
+import com.lji.mybatis.r2dbc.base.execution.SlowQueryLog;
+import com.lji.mybatis.r2dbc.base.execution.SlowQueryRecord;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 慢查询缓冲区的 Actuator 端点（/actuator/mybatisslowqueries）：读取时从新到旧返回，可按语句 id 前缀过滤、限制条数；删除时清空
+ *
+ * @author lji
+ * @date 2026/10/18
+ */
+@Endpoint(id = "mybatisslowqueries")
+public class SlowQueryEndpoint {
+
+    private final R2dbcConfiguration configuration;
+
+    public SlowQueryEndpoint(R2dbcConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @ReadOperation
+    public SlowQueries slowQueries(@Nullable String statement, @Nullable Integer limit, @Nullable Boolean sampled) {
+        SlowQueryLog slowQueryLog = configuration.getSlowQueryLog();
+        if (slowQueryLog == null) {
+            return new SlowQueries(false, 0, 0, Collections.emptyList());
+        }
+        List<SlowQueryRecord> records = new ArrayList<>();
+        for (SlowQueryRecord record : slowQueryLog.getRecords()) {
+            if (limit != null && records.size() >= limit) {
+                break;
+            }
+            if (statement != null && !record.getStatementId().startsWith(statement)) {
+                continue;
+            }
+            if (sampled != null && record.isSampled() != sampled) {
+                continue;
+            }
+            records.add(record);
+        }
+        return new SlowQueries(true, slowQueryLog.getCapacity(), slowQueryLog.getRecordedCount(), records);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        SlowQueryLog slowQueryLog = configuration.getSlowQueryLog();
+        if (slowQueryLog != null) {
+            slowQueryLog.clear();
+        }
+    }
+
+    public static final class SlowQueries {
+
+        private final boolean enabled;
+
+        private final int capacity;
+
+        private final long recorded;
+
+        private final List<SlowQueryRecord> records;
+
+        SlowQueries(boolean enabled, int capacity, long recorded, List<SlowQueryRecord> records) {
+            this.enabled = enabled;
+            this.capacity = capacity;
+            this.recorded = recorded;
+            this.records = records;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * @return 累计记录的条数（含已被覆盖的）
+         */
+        public long getRecorded() {
+            return recorded;
+        }
+
+        public List<SlowQueryRecord> getRecords() {
+            return records;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class BindMarkersTest {
+
+    @Test
+    void questionMarkIsUnchanged() {
+        String sql = "select * from users where id = ? and name = '?'";
+        assertEquals(sql, BindMarkers.QUESTION_MARK.translate(sql));
+    }
+
+    @Test
+    void numbersMarkersInOrder() {
+        assertEquals("update users set name = $1 where id = $2",
+                BindMarkers.DOLLAR_INDEXED.translate("update users set name = ? where id = ?"));
+        assertEquals("update users set name = @P0 where id = @P1",
+                BindMarkers.AT_P_INDEXED.translate("update users set name = ? where id = ?"));
+        assertEquals("select * from users where id = $3", BindMarkers.DOLLAR_INDEXED.translate("select * from users where id = ?", 2));
+    }
+
+    @Test
+    void quotedQuestionMarksAreKept() {
+        assertEquals("select '?', 'it''s ?', \"a?\", `b?` from t where x = $1",
+                BindMarkers.DOLLAR_INDEXED.translate("select '?', 'it''s ?', \"a?\", `b?` from t where x = ?"));
+        // 没有闭合的引号到语句结尾
+        assertEquals("select $1, 'a ?", BindMarkers.DOLLAR_INDEXED.translate("select ?, 'a ?"));
+    }
+
+    @Test
+    void commentsAreKept() {
+        assertEquals("select $1 -- why?\nfrom t /* a ? b */ where x = $2",
+                BindMarkers.DOLLAR_INDEXED.translate("select ? -- why?\nfrom t /* a ? b */ where x = ?"));
+        assertEquals("select @P0 -- trailing ?", BindMarkers.AT_P_INDEXED.translate("select ? -- trailing ?"));
+        assertEquals("select @P0 /* open ?", BindMarkers.AT_P_INDEXED.translate("select ? /* open ?"));
+    }
+
+    @Test
+    void dollarQuotedStringsAreKept() {
+        assertEquals("select $$ ? $$, $tag$ it's ? $tag$, $1",
+                BindMarkers.DOLLAR_INDEXED.translate("select $$ ? $$, $tag$ it's ? $tag$, ?"));
+        // 标识符中的 $ 不是字符串开头
+        assertEquals("select a$b, $1 from t", BindMarkers.DOLLAR_INDEXED.translate("select a$b, ? from t"));
+    }
+
+    @Test
+    void appendMarker() {
+        StringBuilder sql = new StringBuilder();
+        BindMarkers.DOLLAR_INDEXED.appendMarker(sql, 0);
+        BindMarkers.AT_P_INDEXED.appendMarker(sql.append(','), 0);
+        BindMarkers.QUESTION_MARK.appendMarker(sql.append(','), 5);
+        assertEquals("$1,@P0,?", sql.toString());
+    }
+}
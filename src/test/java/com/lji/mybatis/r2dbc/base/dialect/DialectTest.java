@@ -0,0 +1,109 @@
+package com.lji.mybatis.r2dbc.base.dialect;
+
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class DialectTest {
+
+    private static final String SQL = "select id, name from users where age > ?";
+
+    @Test
+    void mySqlPageSql() {
+        Dialect dialect = new MySqlDialect();
+        assertEquals(SQL + " LIMIT ?", dialect.getPageSql("s", SQL, false));
+        assertEquals(SQL + " LIMIT ?, ?", dialect.getPageSql("s", SQL, true));
+        assertEquals("select 1 LIMIT ?", dialect.getPageSql("s", " select 1 ; ", false));
+    }
+
+    @Test
+    void postgreSqlPageSql() {
+        Dialect dialect = new PostgreSqlDialect();
+        assertEquals("select id, name from users where age > $1 LIMIT $2", dialect.getPageSql("s", SQL, false));
+        assertEquals("select id, name from users where age > $1 LIMIT $2 OFFSET $3", dialect.getPageSql("s", SQL, true));
+    }
+
+    @Test
+    void h2PageSql() {
+        Dialect dialect = new H2Dialect();
+        assertEquals("select id, name from users where age > $1 LIMIT $2 OFFSET $3", dialect.getPageSql("s", SQL, true));
+    }
+
+    @Test
+    void oraclePageSql() {
+        Dialect dialect = new OracleDialect();
+        assertEquals(SQL + " FETCH FIRST ? ROWS ONLY", dialect.getPageSql("s", SQL, false));
+        assertEquals(SQL + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", dialect.getPageSql("s", SQL, true));
+    }
+
+    @Test
+    void sqlServerPageSql() {
+        Dialect dialect = new SqlServerDialect();
+        assertEquals("select id, name from users where age > @P0 ORDER BY (SELECT NULL) OFFSET @P1 ROWS FETCH NEXT @P2 ROWS ONLY",
+                dialect.getPageSql("s", SQL, true));
+        assertEquals("select id from users order by id OFFSET @P0 ROWS FETCH NEXT @P1 ROWS ONLY",
+                dialect.getPageSql("s", "select id from users order by id", false));
+        // 子查询和字符串里的 order by 不算
+        assertEquals("select * from (select top 10 id from users order by id) t where name <> 'order by' "
+                        + "ORDER BY (SELECT NULL) OFFSET @P0 ROWS FETCH NEXT @P1 ROWS ONLY",
+                dialect.getPageSql("s", "select * from (select top 10 id from users order by id) t where name <> 'order by'", true));
+    }
+
+    @Test
+    void pageSqlIsCachedPerStatement() {
+        Dialect dialect = new PostgreSqlDialect();
+        String pageSql = dialect.getPageSql("s", SQL, true);
+        assertSame(pageSql, dialect.getPageSql("s", SQL, true));
+        assertEquals(pageSql, dialect.getPageSql("other", SQL, true));
+    }
+
+    @Test
+    void bindPageOrder() {
+        Statement statement = mock(Statement.class);
+        new MySqlDialect().bindPage(statement, 1, 20, 10);
+        InOrder mySql = inOrder(statement);
+        mySql.verify(statement).bind(1, 20);
+        mySql.verify(statement).bind(2, 10);
+
+        statement = mock(Statement.class);
+        new PostgreSqlDialect().bindPage(statement, 1, 20, 10);
+        verify(statement).bind(1, 10);
+        verify(statement).bind(2, 20);
+
+        statement = mock(Statement.class);
+        new SqlServerDialect().bindPage(statement, 0, 0, 10);
+        verify(statement).bind(0, 0);
+        verify(statement).bind(1, 10);
+
+        // 没有 offset 时只绑定 limit
+        statement = mock(Statement.class);
+        new OracleDialect().bindPage(statement, 3, 0, 10);
+        verify(statement).bind(3, 10);
+        verify(statement, never()).bind(eq(4), anyInt());
+    }
+
+    @Test
+    void resolveByName() {
+        assertTrue(Dialects.forName("MariaDB") instanceof MySqlDialect);
+        assertTrue(Dialects.forName("PostgreSQL") instanceof PostgreSqlDialect);
+        assertTrue(Dialects.forName("H2") instanceof H2Dialect);
+        assertTrue(Dialects.forName("Microsoft SQL Server") instanceof SqlServerDialect);
+        assertTrue(Dialects.forName("Oracle") instanceof OracleDialect);
+        assertNull(Dialects.forName("sqlite"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.lji.mybatis.r2dbc.base.impl;
+
+import com.lji.mybatis.r2dbc.base.dialect.BindMarkers;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class MultiRowInsertSqlTest {
+
+    @Test
+    void buildsMultiRowValues() {
+        MultiRowInsertSql insertSql = MultiRowInsertSql.parse("insert into users (id, name) values (?, ?);");
+        assertNotNull(insertSql);
+        assertEquals(2, insertSql.getRowParameters());
+        assertEquals("insert into users (id, name) values (?, ?),(?, ?),(?, ?)", insertSql.build(3));
+        assertEquals("insert into users (id, name) values ($1, $2),($3, $4)", insertSql.build(2, BindMarkers.DOLLAR_INDEXED));
+        assertEquals("insert into users (id, name) values (@P0, @P1),(@P2, @P3)", insertSql.build(2, BindMarkers.AT_P_INDEXED));
+    }
+
+    @Test
+    void keepsLiteralsAndFunctionsInValues() {
+        MultiRowInsertSql insertSql = MultiRowInsertSql.parse("INSERT INTO t (a, b, c, d) VALUES (?, '?)', now(), coalesce(?, 0))");
+        assertNotNull(insertSql);
+        assertEquals(2, insertSql.getRowParameters());
+        assertEquals("INSERT INTO t (a, b, c, d) VALUES ($1, '?)', now(), coalesce($2, 0)),($3, '?)', now(), coalesce($4, 0))",
+                insertSql.build(2, BindMarkers.DOLLAR_INDEXED));
+    }
+
+    @Test
+    void onDuplicateKeyWithoutParametersKeepsSuffix() {
+        MultiRowInsertSql insertSql = MultiRowInsertSql.parse("insert into t (id, hits) values (?, ?) on duplicate key update hits = hits + 1");
+        assertNotNull(insertSql);
+        assertEquals("insert into t (id, hits) values (?, ?),(?, ?) on duplicate key update hits = hits + 1", insertSql.build(2));
+    }
+
+    @Test
+    void onDuplicateKeyWithParametersIsNotRewritten() {
+        assertNull(MultiRowInsertSql.parse("insert into t (id, hits) values (?, ?) on duplicate key update hits = ?"));
+        // 第二个 VALUES 关键字，按不能改写处理
+        assertNull(MultiRowInsertSql.parse("insert into t (id, hits) values (?, ?) on duplicate key update hits = values(hits)"));
+    }
+
+    @Test
+    void existingMultiRowValuesIsNotRewritten() {
+        assertNull(MultiRowInsertSql.parse("insert into t (id) values (?), (?)"));
+        assertNull(MultiRowInsertSql.parse("insert into t (id) values (1),(2)"));
+    }
+
+    @Test
+    void otherStatementsAreNotRewritten() {
+        assertNull(MultiRowInsertSql.parse("update t set a = ?"));
+        assertNull(MultiRowInsertSql.parse("insert into t (id) select id from s where x = ?"));
+        assertNull(MultiRowInsertSql.parse("insert into t (id, name) values (?, ?) -- note"));
+        assertNull(MultiRowInsertSql.parse("insert into t /* ? */ (id) values (?)"));
+        assertNull(MultiRowInsertSql.parse("insert into t (id, name) values (?, 'open)"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.lji.mybatis.r2dbc.base.loader;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class KeyBatchLoaderTest {
+
+    private final List<List<Object>> queries = new CopyOnWriteArrayList<>();
+
+    @Test
+    void mergesKeysWithinWindow() {
+        KeyBatchLoader loader = new KeyBatchLoader(keys -> {
+            queries.add(keys);
+            List<long[]> rows = new ArrayList<>();
+            for (Object key : keys) {
+                if (((Number) key).longValue() != 99) {
+                    rows.add(new long[]{((Number) key).longValue()});
+                }
+            }
+            return Flux.fromIterable(rows);
+        }, row -> ((long[]) row)[0], Duration.ofMillis(20), 100);
+
+        List<Object> results = Flux.just(1, 2, 2L, 99)
+                .flatMap(key -> loader.load(key).map(row -> (Object) ((long[]) row)[0]).defaultIfEmpty("none"))
+                .collectList().block();
+
+        assertEquals(1, queries.size());
+        assertEquals(Arrays.asList(1, 2, 99), queries.get(0));
+        assertEquals(4, results.size());
+        assertTrue(results.containsAll(Arrays.asList(1L, 2L, "none")));
+    }
+
+    @Test
+    void cancelledBeforeDispatchIsNotQueried() throws Exception {
+        KeyBatchLoader loader = new KeyBatchLoader(keys -> {
+            queries.add(keys);
+            return Flux.fromIterable(keys);
+        }, row -> row, Duration.ofMillis(50), 100);
+
+        Disposable cancelled = loader.load(1).subscribe();
+        CompletableFuture<Object> kept = loader.load(2).toFuture();
+        cancelled.dispose();
+
+        assertEquals(2, kept.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(Collections.singletonList(2)), queries);
+    }
+
+    /**
+     * 攒够 maxBatchSize 提前发出后，那个窗口的定时器不能提前发出下一批
+     */
+    @Test
+    void fullBatchCancelsItsWindowTimer() throws Exception {
+        KeyBatchLoader loader = new KeyBatchLoader(keys -> {
+            queries.add(keys);
+            return Flux.fromIterable(keys);
+        }, row -> row, Duration.ofMillis(400), 2);
+
+        loader.load(1).subscribe();
+        loader.load(2).subscribe();
+        assertEquals(1, queries.size());
+        Thread.sleep(200);
+        CompletableFuture<Object> third = loader.load(3).toFuture();
+        Thread.sleep(300);
+        assertEquals(1, queries.size());
+        assertEquals(3, third.get(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList(3), queries.get(1));
+    }
+
+    @Test
+    void queryIsCancelledWhenAllWaitersCancel() {
+        AtomicBoolean queryCancelled = new AtomicBoolean();
+        KeyBatchLoader loader = new KeyBatchLoader(keys -> Flux.never().doOnCancel(() -> queryCancelled.set(true)),
+                row -> row, Duration.ofSeconds(10), 2);
+
+        Disposable first = loader.load(1).subscribe();
+        Disposable second = loader.load(2).subscribe();
+        first.dispose();
+        assertFalse(queryCancelled.get());
+        second.dispose();
+        assertTrue(queryCancelled.get());
+    }
+
+    @Test
+    void remainingWaiterStillReceivesRow() throws Exception {
+        KeyBatchLoader loader = new KeyBatchLoader(keys -> Flux.fromIterable(keys).delaySubscription(Duration.ofMillis(50)),
+                row -> row, Duration.ofSeconds(10), 2);
+
+        Disposable first = loader.load(1).subscribe();
+        CompletableFuture<Object> second = loader.load(2).toFuture();
+        first.dispose();
+        assertEquals(2, second.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,118 @@
+package com.lji.mybatis.r2dbc.base.loader;
+
+import com.lji.mybatis.r2dbc.conf.R2dbcConfiguration;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class NestedSelectKeysTest {
+
+    private final R2dbcConfiguration configuration = new R2dbcConfiguration();
+
+    @Test
+    void keyIsTakenFromUnmappedColumn() {
+        NestedSelectKeys keys = keys(new ResultMapping.Builder(configuration, "author", "author_id", Object.class)
+                .nestedQueryId("selectAuthor").build());
+        BiFunction<Row, RowMetadata, Blog> mapper = keys.capture((row, rowMetadata) -> new Blog(1L));
+
+        Blog blog = mapper.apply(row(1L, 7), metadata("id", "AUTHOR_ID"));
+        assertEquals(7L, keys.readKey(0, blog));
+
+        keys.release(Collections.singletonList(blog));
+        assertNull(keys.readKey(0, blog));
+    }
+
+    @Test
+    void compositeKeyFromColumns() {
+        ResultMapping composite = new ResultMapping.Builder(configuration, "author", null, Object.class)
+                .nestedQueryId("selectAuthor")
+                .composites(Arrays.asList(new ResultMapping.Builder(configuration, "blogId", "id", Object.class).build(),
+                        new ResultMapping.Builder(configuration, "authorId", "author_id", Object.class).build()))
+                .build();
+        NestedSelectKeys keys = keys(composite);
+        BiFunction<Row, RowMetadata, Blog> mapper = keys.capture((row, rowMetadata) -> new Blog(1L));
+
+        Blog blog = mapper.apply(row(1L, 7), metadata("id", "author_id"));
+        Map<?, ?> key = (Map<?, ?>) keys.readKey(0, blog);
+        assertEquals(1L, key.get("blogId"));
+        assertEquals(7, key.get("authorId"));
+    }
+
+    @Test
+    void fallsBackToPropertyWithoutColumn() {
+        NestedSelectKeys keys = keys(new ResultMapping.Builder(configuration, "author", "id", Object.class)
+                .nestedQueryId("selectAuthor").build());
+        BiFunction<Row, RowMetadata, Blog> mapper = keys.capture((row, rowMetadata) -> new Blog(3L));
+
+        Blog blog = mapper.apply(row(9L), metadata("other"));
+        assertEquals(3L, keys.readKey(0, blog));
+    }
+
+    private NestedSelectKeys keys(ResultMapping nested) {
+        List<ResultMapping> resultMappings = Arrays.asList(
+                new ResultMapping.Builder(configuration, "id", "id", Long.class).build(), nested);
+        ResultMap resultMap = new ResultMap.Builder(configuration, "blog" + System.nanoTime(), Blog.class, resultMappings).build();
+        return new NestedSelectKeys(configuration.getRowMapper(resultMap).getNestedSelects());
+    }
+
+    private static Row row(Object... values) {
+        Row row = mock(Row.class);
+        for (int i = 0; i < values.length; i++) {
+            when(row.get(i)).thenReturn(values[i]);
+        }
+        return row;
+    }
+
+    private static RowMetadata metadata(String... columns) {
+        RowMetadata rowMetadata = mock(RowMetadata.class);
+        when(rowMetadata.getColumnNames()).thenReturn(Arrays.asList(columns));
+        return rowMetadata;
+    }
+
+    public static class Blog {
+
+        private Long id;
+
+        private Object author;
+
+        public Blog() {
+        }
+
+        Blog(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Object getAuthor() {
+            return author;
+        }
+
+        public void setAuthor(Object author) {
+            this.author = author;
+        }
+    }
+}
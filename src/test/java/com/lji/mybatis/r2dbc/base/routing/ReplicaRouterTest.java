@@ -0,0 +1,57 @@
+package com.lji.mybatis.r2dbc.base.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class ReplicaRouterTest {
+
+    @Test
+    void expiredEjectionAdmitsSingleProbe() throws Exception {
+        ReplicaRouter router = new ReplicaRouter(Collections.singletonList(mock(ConnectionFactory.class)),
+                ReplicaSelection.ROUND_ROBIN, 1, Duration.ofMillis(50));
+        Replica replica = router.getReplicas().get(0);
+
+        router.failed(replica, new RuntimeException("refused"), true);
+        assertNull(router.select());
+        Thread.sleep(80);
+        assertSame(replica, router.select());
+        assertNull(router.select());
+
+        // 试探失败立即重新摘除
+        router.failed(replica, new RuntimeException("refused"), true);
+        Thread.sleep(80);
+        assertSame(replica, router.select());
+        assertNull(router.select());
+        router.succeeded(replica);
+        assertSame(replica, router.select());
+        assertSame(replica, router.select());
+    }
+
+    @Test
+    void leastPendingProbesExpiredReplicaOnce() throws Exception {
+        ReplicaRouter router = new ReplicaRouter(Arrays.asList(mock(ConnectionFactory.class), mock(ConnectionFactory.class)),
+                ReplicaSelection.LEAST_PENDING, 1, Duration.ofMillis(50));
+        Replica healthy = router.getReplicas().get(0);
+        Replica ejected = router.getReplicas().get(1);
+        router.acquired(healthy);
+
+        router.failed(ejected, new RuntimeException("refused"), true);
+        assertSame(healthy, router.select());
+        Thread.sleep(80);
+        assertSame(ejected, router.select());
+        assertSame(healthy, router.select());
+        assertSame(healthy, router.select());
+    }
+}
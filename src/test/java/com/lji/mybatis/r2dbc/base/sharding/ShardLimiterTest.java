@@ -0,0 +1,88 @@
+package com.lji.mybatis.r2dbc.base.sharding;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class ShardLimiterTest {
+
+    @Test
+    void cancelledWaitersDoNotHoldPermits() {
+        ShardLimiter limiter = new ShardLimiter(1);
+        assertTrue(limiter.acquire().block());
+        AtomicInteger granted = new AtomicInteger();
+        Disposable first = limiter.acquire().subscribe(permit -> granted.incrementAndGet());
+        Disposable second = limiter.acquire().subscribe(permit -> granted.incrementAndGet());
+        limiter.acquire().subscribe(permit -> granted.incrementAndGet());
+        assertEquals(3, limiter.getWaiting());
+
+        first.dispose();
+        second.dispose();
+        assertEquals(1, limiter.getWaiting());
+        limiter.release();
+        assertEquals(1, granted.get());
+        assertEquals(1, limiter.getActive());
+        assertEquals(0, limiter.getWaiting());
+        limiter.release();
+        assertEquals(0, limiter.getActive());
+    }
+
+    /**
+     * 排队的订阅在拿到许可的同时取消，许可不能丢
+     */
+    @Test
+    void cancelRacingHandOffReleasesPermit() throws Exception {
+        ShardRouter router = new ShardRouter(new Configuration(), Collections.singletonList(mock(ConnectionFactory.class)),
+                ShardingStrategy.MODULO, "id", 1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                Disposable holder = router.limit(0, Flux.never()).subscribe();
+                Disposable waiter = router.limit(0, Flux.just(1)).subscribe();
+                assertEquals(1, router.getWaiting(0));
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> release = executor.submit(() -> {
+                    await(start);
+                    holder.dispose();
+                });
+                Future<?> cancel = executor.submit(() -> {
+                    await(start);
+                    waiter.dispose();
+                });
+                start.countDown();
+                release.get(5, TimeUnit.SECONDS);
+                cancel.get(5, TimeUnit.SECONDS);
+                assertEquals(0, router.getActive(0), "permit leaked in round " + i);
+                assertEquals(0, router.getWaiting(0));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
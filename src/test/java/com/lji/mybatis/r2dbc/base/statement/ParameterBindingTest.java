@@ -0,0 +1,33 @@
+package com.lji.mybatis.r2dbc.base.statement;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author lji
+ * @date 2026/10/18
+ */
+class ParameterBindingTest {
+
+    @Test
+    void estimateSizeOfValues() {
+        assertEquals(0, ParameterBinding.estimateSize(null));
+        assertEquals(5, ParameterBinding.estimateSize("hello"));
+        assertEquals(3, ParameterBinding.estimateSize(new byte[3]));
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.position(4);
+        assertEquals(6, ParameterBinding.estimateSize(buffer));
+        assertEquals(1, ParameterBinding.estimateSize(true));
+        assertEquals(4, ParameterBinding.estimateSize(1));
+        assertEquals(8, ParameterBinding.estimateSize(1L));
+        assertEquals(16, ParameterBinding.estimateSize(BigDecimal.ONE));
+        assertEquals(12, ParameterBinding.estimateSize(new Date()));
+        assertEquals(12, ParameterBinding.estimateSize(LocalDateTime.now()));
+    }
+}